@@ -0,0 +1,51 @@
+package at.ac.uibk.swa.config.jwt_authentication;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link JwtTokenParser} with the previous ObjectMapper based Parsing of the Authorization Header.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenParserBenchmark {
+
+    private static final String TOKEN = "62b3e09e-c529-40c6-85c6-1afc53e17408";
+
+    @Param({"valid", "malformed", "oversized"})
+    public String input;
+
+    private String header;
+
+    @Setup
+    public void createHeader() {
+        header = switch (input) {
+            case "valid" -> "{\"username\":\"Admin\",\"token\":\"" + TOKEN + "\"}";
+            // Truncated Token and missing closing Brace
+            case "malformed" -> "{\"username\":\"Admin\",\"token\":\"" + TOKEN.substring(1) + "\"";
+            case "oversized" -> "{\"username\":\"" + "A".repeat(64 * 1024) + "\",\"token\":\"" + TOKEN + "\"}";
+            default -> throw new IllegalArgumentException("Unknown Input: " + input);
+        };
+    }
+
+    @Benchmark
+    public JwtToken objectMapper() {
+        try {
+            return new ObjectMapper().readValue(header, JwtToken.class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public JwtToken streamingParser() {
+        return JwtTokenParser.parse(header);
+    }
+}
@@ -0,0 +1,81 @@
+package at.ac.uibk.swa.config.request_matchers;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link PublicEndpointMatcher} with the previous {@link OrRequestMatcher} of {@link AntPathRequestMatcher}s.
+ * <br/>
+ * Every Request is matched three Times like in the Filter Chain (Authentication Filter, public and protected Rule).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublicEndpointMatcherBenchmark {
+
+    @Param({"50", "300"})
+    public int endpoints;
+
+    @Param({"public", "protected"})
+    public String target;
+
+    private RequestMatcher antPublic;
+    private RequestMatcher antProtected;
+    private PublicEndpointMatcher triePublic;
+    private RequestMatcher trieProtected;
+    private String path;
+
+    @Setup
+    public void createMatchers() {
+        List<String> patterns = new ArrayList<>(endpoints);
+        for (int i = 0; i < endpoints; i++) {
+            switch (i % 3) {
+                case 0 -> patterns.add("/api/resource" + i);
+                case 1 -> patterns.add("/api/resource" + i + "/{id}");
+                default -> patterns.add("/api/resource" + i + "/{id}/details/**");
+            }
+        }
+
+        antPublic = new OrRequestMatcher(patterns.stream()
+                .map(AntPathRequestMatcher::new)
+                .toArray(RequestMatcher[]::new));
+        antProtected = new NegatedRequestMatcher(antPublic);
+        triePublic = new PublicEndpointMatcher(patterns);
+        trieProtected = triePublic.protectedEndpoints();
+
+        // NOTE: Take the last Pattern, which is the worst Case for the OrRequestMatcher.
+        int last = endpoints - 1 - ((endpoints - 1) % 3) + 1;
+        path = target.equals("public")
+                ? "/api/resource" + last + "/42"
+                : "/api/users/42/settings";
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        return request;
+    }
+
+    @Benchmark
+    public boolean antPathMatchers() {
+        MockHttpServletRequest request = request();
+        return antProtected.matches(request) ^ antPublic.matches(request) ^ antProtected.matches(request);
+    }
+
+    @Benchmark
+    public boolean precompiledTrie() {
+        MockHttpServletRequest request = request();
+        return trieProtected.matches(request) ^ triePublic.matches(request) ^ trieProtected.matches(request);
+    }
+}
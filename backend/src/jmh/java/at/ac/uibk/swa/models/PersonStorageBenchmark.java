@@ -0,0 +1,108 @@
+package at.ac.uibk.swa.models;
+
+import at.ac.uibk.swa.util.UUIDUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares storing the ID and Token of a Person as Strings or as BINARY(16)
+ * and generating them randomly (Version 4) or time-ordered (Version 7).
+ * <br/>
+ * Runs against an in-memory H2 Database by default (with and without the MySQL Compatibility Mode).
+ * To measure a real MySQL Server, override the URL, e.g. with <code>-p url=jdbc:mysql://localhost:3306/bench?user=...</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersonStorageBenchmark {
+
+    private static final int PREFILLED_ROWS = 100_000;
+
+    @Param({"jdbc:h2:mem:", "jdbc:h2:mem:;MODE=MySQL"})
+    public String url;
+
+    @Param({"NVARCHAR", "BINARY"})
+    public String storage;
+
+    @Param({"random", "timeOrdered"})
+    public String generation;
+
+    private Connection connection;
+    private PreparedStatement insert;
+    private PreparedStatement lookup;
+    private final List<UUID> existingTokens = new ArrayList<>(PREFILLED_ROWS);
+
+    @Setup(Level.Iteration)
+    public void createTable() throws SQLException {
+        connection = DriverManager.getConnection(url);
+        String uuidType = "BINARY".equals(storage) ? "BINARY(16)" : "VARCHAR(255)";
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS person_bench");
+            statement.execute(
+                    "CREATE TABLE person_bench (" +
+                            "person_id " + uuidType + " NOT NULL PRIMARY KEY, " +
+                            "username VARCHAR(255) NOT NULL, " +
+                            "token " + uuidType + " NULL UNIQUE" +
+                    ")"
+            );
+        }
+        insert = connection.prepareStatement("INSERT INTO person_bench (person_id, username, token) VALUES (?, ?, ?)");
+        lookup = connection.prepareStatement("SELECT person_id, username FROM person_bench WHERE token = ?");
+
+        existingTokens.clear();
+        for (int i = 0; i < PREFILLED_ROWS; i++)
+            existingTokens.add(insertPerson());
+    }
+
+    @TearDown(Level.Iteration)
+    public void dropTable() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE person_bench");
+        }
+        connection.close();
+    }
+
+    private UUID nextUUID() {
+        return "timeOrdered".equals(generation) ? UUIDUtil.randomTimeOrderedUUID() : UUID.randomUUID();
+    }
+
+    private void bindUUID(PreparedStatement statement, int index, UUID uuid) throws SQLException {
+        if ("BINARY".equals(storage))
+            statement.setBytes(index, UUIDUtil.toBytes(uuid));
+        else
+            statement.setString(index, uuid.toString());
+    }
+
+    private UUID insertPerson() throws SQLException {
+        UUID id = nextUUID();
+        UUID token = nextUUID();
+        bindUUID(insert, 1, id);
+        insert.setString(2, id.toString());
+        bindUUID(insert, 3, token);
+        insert.executeUpdate();
+        return token;
+    }
+
+    @Benchmark
+    public UUID insert() throws SQLException {
+        return insertPerson();
+    }
+
+    @Benchmark
+    public String lookupByToken() throws SQLException {
+        UUID token = existingTokens.get(ThreadLocalRandom.current().nextInt(existingTokens.size()));
+        bindUUID(lookup, 1, token);
+        try (ResultSet resultSet = lookup.executeQuery()) {
+            return resultSet.next() ? resultSet.getString(2) : null;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package at.ac.uibk.swa.models.annotations.aspects;
+
+import at.ac.uibk.swa.models.Authenticable;
+import at.ac.uibk.swa.models.Permission;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.models.annotations.AllPermission;
+import at.ac.uibk.swa.models.annotations.AnyPermission;
+import jakarta.servlet.http.HttpServletRequest;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures the Overhead of the {@link AnyPermissionAspect} and {@link AllPermissionAspect} per Call
+ * compared to the previous Implementation, which read the Annotation reflectively and
+ * collected the Permissions into a new Set on every Call.
+ * <br/>
+ * Both Variants are applied to the same Target using a Spring AOP Proxy, so the Proxy Overhead is the same.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionAspectBenchmark {
+
+    public static class Endpoints {
+        @AnyPermission({Permission.USER, Permission.ADMIN})
+        public int anyPermission() {
+            return 1;
+        }
+
+        @AllPermission({Permission.USER, Permission.ADMIN})
+        public int allPermissions() {
+            return 2;
+        }
+    }
+
+    private Endpoints legacy;
+    private Endpoints bitmask;
+
+    @Setup
+    public void createProxies() {
+        Person person = new Person("benchmark", "benchmark@example.com", "", Set.of(Permission.USER, Permission.ADMIN));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/benchmark");
+        request.setUserPrincipal(new UsernamePasswordAuthenticationToken(person, null, person.getAuthorities()));
+
+        legacy = createProxy(new LegacyAnyPermissionAspect(request), new LegacyAllPermissionAspect(request));
+
+        AnyPermissionAspect anyPermissionAspect = new AnyPermissionAspect();
+        ReflectionTestUtils.setField(anyPermissionAspect, "request", request);
+        AllPermissionAspect allPermissionAspect = new AllPermissionAspect();
+        ReflectionTestUtils.setField(allPermissionAspect, "request", request);
+        bitmask = createProxy(anyPermissionAspect, allPermissionAspect);
+    }
+
+    private static Endpoints createProxy(Object... aspects) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Endpoints());
+        factory.setProxyTargetClass(true);
+        for (Object aspect : aspects)
+            factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    @Benchmark
+    public int legacyAspects() {
+        return legacy.anyPermission() + legacy.allPermissions();
+    }
+
+    @Benchmark
+    public int bitmaskAspects() {
+        return bitmask.anyPermission() + bitmask.allPermissions();
+    }
+
+    //region Previous Implementation
+    @Aspect
+    public static class LegacyAnyPermissionAspect {
+        private final HttpServletRequest request;
+
+        public LegacyAnyPermissionAspect(HttpServletRequest request) {
+            this.request = request;
+        }
+
+        @Around("@annotation(at.ac.uibk.swa.models.annotations.AnyPermission)")
+        public Object check(ProceedingJoinPoint jp) throws Throwable {
+            Set<Permission> requiredPermission = Arrays.stream(
+                    ((MethodSignature) jp.getSignature())
+                            .getMethod()
+                            .getAnnotation(AnyPermission.class)
+                            .value()
+            ).collect(Collectors.toSet());
+
+            Optional<Set<GrantedAuthority>> maybeUserPermissions =
+                    Optional.ofNullable((UsernamePasswordAuthenticationToken) request.getUserPrincipal())
+                            .map(token -> token.getPrincipal() instanceof Authenticable a ? a : null)
+                            .map(Authenticable::getPermissions);
+
+            if (maybeUserPermissions.isPresent()) {
+                Set<GrantedAuthority> userPermissions = maybeUserPermissions.get();
+                for (Permission permission : requiredPermission) {
+                    if (userPermissions.contains(permission))
+                        return jp.proceed();
+                }
+            }
+
+            throw new AccessDeniedException("");
+        }
+    }
+
+    @Aspect
+    public static class LegacyAllPermissionAspect {
+        private final HttpServletRequest request;
+
+        public LegacyAllPermissionAspect(HttpServletRequest request) {
+            this.request = request;
+        }
+
+        @Around("@annotation(at.ac.uibk.swa.models.annotations.AllPermission)")
+        public Object check(ProceedingJoinPoint jp) throws Throwable {
+            Set<Permission> requiredPermission = Arrays.stream(
+                    ((MethodSignature) jp.getSignature())
+                            .getMethod()
+                            .getAnnotation(AllPermission.class)
+                            .value()
+            ).collect(Collectors.toSet());
+
+            Optional<Set<GrantedAuthority>> maybeUserPermissions =
+                    Optional.ofNullable((UsernamePasswordAuthenticationToken) request.getUserPrincipal())
+                            .map(token -> token.getPrincipal() instanceof Authenticable a ? a : null)
+                            .map(Authenticable::getPermissions);
+
+            if (maybeUserPermissions.isEmpty())
+                throw new AccessDeniedException("");
+
+            Set<GrantedAuthority> userPermissions = maybeUserPermissions.get();
+            for (Permission permission : requiredPermission) {
+                if (!userPermissions.contains(permission))
+                    throw new AccessDeniedException("");
+            }
+
+            return jp.proceed();
+        }
+    }
+    //endregion
+}
@@ -0,0 +1,73 @@
+package at.ac.uibk.swa.repositories;
+
+import at.ac.uibk.swa.SwaApplication;
+import at.ac.uibk.swa.models.Permission;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.models.PersonSummary;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares loading all Persons as managed Entities (the previous List Endpoints)
+ * with loading them as {@link PersonSummary}-Records.
+ * <br/>
+ * Runs against the in-memory H2 Database of the Test-Profile.
+ * The Heap used per Listing is reported by the GC-Profiler ("gc.alloc.rate.norm").
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersonProjectionBenchmark {
+
+    @Param({"10000"})
+    public int persons;
+
+    private ConfigurableApplicationContext context;
+    private PersonRepository personRepository;
+
+    @Setup
+    public void fillDatabase() {
+        context = SpringApplication.run(
+                SwaApplication.class,
+                "--spring.profiles.active=test",
+                "--server.port=0",
+                "--logging.level.root=WARN"
+        );
+        personRepository = context.getBean(PersonRepository.class);
+
+        List<Person> batch = new ArrayList<>(persons);
+        for (int i = 0; i < persons; i++) {
+            // NOTE: The Password is stored as is, the Benchmark only reads it.
+            batch.add(new Person(
+                    "benchmark" + i, "benchmark" + i + "@example.com",
+                    "$2a$10$abcdefghijklmnopqrstuuTQLCq4Mk5ubDFMqm7fZdxA3UkHdDXQ6",
+                    Set.of(Permission.USER)
+            ));
+        }
+        personRepository.saveAll(batch);
+    }
+
+    @TearDown
+    public void closeContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Person> entities() {
+        return personRepository.findAll();
+    }
+
+    @Benchmark
+    public List<PersonSummary> summaries() {
+        return personRepository.findAllSummaries();
+    }
+}
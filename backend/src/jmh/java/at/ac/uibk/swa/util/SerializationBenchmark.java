@@ -0,0 +1,64 @@
+package at.ac.uibk.swa.util;
+
+import at.ac.uibk.swa.models.rest_responses.ListResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares writing a large {@link ListResponse} with a new, pretty-printing {@link ObjectMapper} per Response
+ * (the previous {@link SerializationUtil#serializeJSON}) against streaming it with the shared Writer.
+ * <br/>
+ * The Bytes allocated per Response are reported by the GC-Profiler ("gc.alloc.rate.norm").
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    public record Item(UUID id, String username, String email) implements Serializable { }
+
+    @Param({"10000"})
+    public int items;
+
+    private ListResponse<Item> response;
+    private final OutputStream sink = OutputStream.nullOutputStream();
+
+    @Setup
+    public void createResponse() {
+        List<Item> list = new ArrayList<>(items);
+        for (int i = 0; i < items; i++)
+            list.add(new Item(UUID.randomUUID(), "user" + i, "user" + i + "@noreply.com"));
+        response = new ListResponse<>(list);
+        SerializationUtil.setPrettyPrint(false);
+    }
+
+    @Benchmark
+    public void newMapperPerResponse() throws IOException {
+        String body = new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValueAsString(response);
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(sink, StandardCharsets.UTF_8));
+        writer.write(body);
+        writer.flush();
+    }
+
+    @Benchmark
+    public void sharedStreamingWriter() throws IOException {
+        SerializationUtil.writeJSON(sink, response);
+    }
+}
@@ -0,0 +1,112 @@
+package at.ac.uibk.swa.util.concurrent;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a Prefix Query on the {@link PrefixIndex} with filtering the List of all Users
+ * (which is what the Admin UI did with the Result of "/get-all-users").
+ * <br/>
+ * The Memory needed per indexed User is reported by {@link #buildIndex}: the GC-Profiler ("gc.alloc.rate.norm")
+ * shows the Bytes allocated for building the whole Index, an upper Bound of its Footprint.
+ * The Heap retained by the Index is printed once after the Setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PrefixIndexBenchmark {
+
+    public record User(UUID id, String username, String email) { }
+
+    @Param({"100000", "1000000"})
+    public int users;
+
+    @Param({"10"})
+    public int limit;
+
+    private List<User> list;
+    private PrefixIndex<UUID, User> index;
+    private String[] prefixes;
+    private int next;
+
+    @Setup
+    public void createUsers() {
+        Random random = new Random(42);
+        list = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            String username = randomString(random, 6) + i;
+            list.add(new User(UUID.randomUUID(), username, randomString(random, 8) + "@" + randomString(random, 5) + ".com"));
+        }
+
+        long before = usedMemory();
+        index = buildIndex();
+        long after = usedMemory();
+        System.out.printf("%nPrefixIndex retains ~%d Bytes for %d Users (~%d Bytes per User)%n",
+                after - before, users, (after - before) / users);
+
+        prefixes = new String[1024];
+        for (int i = 0; i < prefixes.length; i++) {
+            User user = list.get(random.nextInt(users));
+            String term = random.nextBoolean() ? user.username() : user.email();
+            prefixes[i] = term.substring(0, 1 + random.nextInt(4));
+        }
+    }
+
+    private static String randomString(Random random, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++)
+            builder.append((char) ('a' + random.nextInt(26)));
+        return builder.toString();
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private String nextPrefix() {
+        return prefixes[next++ & (prefixes.length - 1)];
+    }
+
+    @Benchmark
+    public List<User> prefixIndex() {
+        return index.search(nextPrefix(), limit);
+    }
+
+    @Benchmark
+    public List<User> filterAllUsers() {
+        String prefix = nextPrefix().toLowerCase(Locale.ROOT);
+        return list.stream()
+                .filter(user -> user.username().toLowerCase(Locale.ROOT).startsWith(prefix)
+                        || user.email().toLowerCase(Locale.ROOT).startsWith(prefix))
+                .toList();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public void buildIndex(Blackhole blackhole) {
+        blackhole.consume(buildIndex());
+    }
+
+    private PrefixIndex<UUID, User> buildIndex() {
+        PrefixIndex<UUID, User> built = new PrefixIndex<>();
+        for (User user : list)
+            built.put(user.id(), user, user.username(), user.email());
+        return built;
+    }
+}
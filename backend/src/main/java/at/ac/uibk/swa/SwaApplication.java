@@ -1,6 +1,7 @@
 package at.ac.uibk.swa;
 
 import org.springframework.boot.SpringApplication;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -13,9 +14,17 @@ public class SwaApplication {
 	}
 
 	//region Password Encryption Bean
+	/**
+	 * The Encoder for new Password Hashes.
+	 * Existing Hashes with a different Strength are re-hashed on the next Login
+	 * (see {@link at.ac.uibk.swa.service.PasswordRehashService}).
+	 *
+	 * @param strength The BCrypt Cost Factor (the Work grows with 2^strength).
+	 * @return The Password Encoder.
+	 */
 	@Bean
-	public PasswordEncoder encoder() {
-		return new BCryptPasswordEncoder();
+	public PasswordEncoder encoder(@Value("${swa.password.bcrypt-strength:10}") int strength) {
+		return new BCryptPasswordEncoder(strength);
 	}
 	//endregion
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package at.ac.uibk.swa.config;
+
+import at.ac.uibk.swa.util.concurrent.PasswordHashingExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+/**
+ * Configures the Thread Pools that compute Password Hashes off the Request Threads.
+ *
+ * @see PasswordHashingExecutor
+ */
+@Configuration
+public class PasswordHashingConfig {
+
+    @Value("${swa.password.hashing.threads:0}")
+    private int threads;
+
+    @Value("${swa.password.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${swa.password.hashing.retry-after:1s}")
+    private Duration retryAfter;
+
+    @Value("${swa.password.hashing.bulk.threads:0}")
+    private int bulkThreads;
+
+    @Value("${swa.password.hashing.bulk.queue-capacity:256}")
+    private int bulkQueueCapacity;
+
+    /**
+     * Pool for the Hashes needed by Logins and Registrations.
+     * If no Number of Threads is configured, one Thread per CPU-Core is used.
+     *
+     * @param registry The Registry to publish the Pool's Metrics to.
+     * @return The Password Hashing Pool.
+     */
+    @Primary
+    @Bean(destroyMethod = "shutdown")
+    public PasswordHashingExecutor passwordHashingExecutor(MeterRegistry registry) {
+        int poolThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new PasswordHashingExecutor("password-hashing", poolThreads, queueCapacity, retryAfter, registry);
+    }
+
+    /**
+     * Pool for the Hashes needed when creating many Users at once.
+     * It is separate from the Login Pool, so a large Batch never delays or rejects Logins.
+     * If no Number of Threads is configured, half of the CPU-Cores are used.
+     *
+     * @param registry The Registry to publish the Pool's Metrics to.
+     * @return The Bulk Password Hashing Pool.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public PasswordHashingExecutor bulkPasswordHashingExecutor(MeterRegistry registry) {
+        int poolThreads = bulkThreads > 0 ? bulkThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new PasswordHashingExecutor("password-hashing-bulk", poolThreads, bulkQueueCapacity, retryAfter, registry);
+    }
+}
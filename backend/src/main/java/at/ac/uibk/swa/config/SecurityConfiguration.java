@@ -2,11 +2,15 @@ package at.ac.uibk.swa.config;
 
 import at.ac.uibk.swa.config.exception_handling.RestAccessDeniedHandler;
 import at.ac.uibk.swa.config.filters.HeaderTokenAuthenticationFilter;
+import at.ac.uibk.swa.config.request_matchers.PublicEndpointMatcher;
+import at.ac.uibk.swa.models.Permission;
 import at.ac.uibk.swa.models.annotations.PublicEndpoint;
 import at.ac.uibk.swa.util.EndpointMatcherUtil;
 import jakarta.annotation.security.PermitAll;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.metrics.MetricsEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -19,9 +23,6 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.AbstractAuthenticationProcessingFilter;
 import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
 import org.springframework.security.web.authentication.AuthenticationFailureHandler;
-import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
-import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
-import org.springframework.security.web.util.matcher.OrRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.filter.GenericFilterBean;
@@ -31,7 +32,6 @@ import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandl
 import org.springframework.web.util.pattern.PathPattern;
 
 import java.util.*;
-import java.util.stream.Stream;
 
 /**
  * Class for configuring the Authentication Process of the Web-Server.
@@ -103,16 +103,17 @@ public class SecurityConfiguration {
         // NOTE: This is a workaround because Spring Security does not define an Annotation
         //       that lets you exempt an Endpoint from the FilterChain
         Map<RequestMappingInfo, HandlerMethod> methods = handlerMapping.getHandlerMethods();
-        RequestMatcher publicMappings = new OrRequestMatcher(methods.entrySet().stream()
+        List<String> publicPatterns = methods.entrySet().stream()
                 .filter(h -> h.getValue().hasMethodAnnotation(PublicEndpoint.class))
-                .flatMap(h -> Stream.of(h.getKey()
+                .flatMap(h -> h.getKey()
                         .getPathPatternsCondition()
                         .getPatterns().stream()
-                        .map(PathPattern::getPatternString)
-                        .toArray(String[]::new)))
-                .map(AntPathRequestMatcher::new)
-                .toArray(RequestMatcher[]::new));
-        RequestMatcher protectedMappings = new NegatedRequestMatcher(publicMappings);
+                        .map(PathPattern::getPatternString))
+                .toList();
+        // NOTE: The Matchers are evaluated multiple Times per Request, so all Patterns are compiled
+        //       into a single Matcher which memoizes its Result in the Request.
+        PublicEndpointMatcher publicMappings = new PublicEndpointMatcher(publicPatterns);
+        RequestMatcher protectedMappings = publicMappings.protectedEndpoints();
 
         http
                 // Register the custom AuthenticationProvider and AuthenticationFilter
@@ -121,6 +122,8 @@ public class SecurityConfiguration {
 
                 .authorizeHttpRequests(auth -> auth
                             .requestMatchers(publicMappings).permitAll()
+                            // NOTE: The Metrics expose Internals of the Caches, Sessions and Throttling, so only Admins may read them.
+                            .requestMatchers(EndpointRequest.to(MetricsEndpoint.class)).hasAuthority(Permission.ADMIN.getAuthority())
                             .requestMatchers(protectedMappings).authenticated()
                 )
 
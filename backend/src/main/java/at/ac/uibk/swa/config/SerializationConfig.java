@@ -0,0 +1,21 @@
+package at.ac.uibk.swa.config;
+
+import at.ac.uibk.swa.util.SerializationUtil;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configures the JSON Output of the {@link SerializationUtil}.
+ */
+@Configuration
+public class SerializationConfig {
+
+    @Value("${swa.json.pretty-print:false}")
+    private boolean prettyPrint;
+
+    @PostConstruct
+    private void configureSerialization() {
+        SerializationUtil.setPrettyPrint(prettyPrint);
+    }
+}
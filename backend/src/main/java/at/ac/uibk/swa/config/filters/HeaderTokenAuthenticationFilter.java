@@ -1,5 +1,6 @@
 package at.ac.uibk.swa.config.filters;
 
+import at.ac.uibk.swa.config.jwt_authentication.BearerToken;
 import at.ac.uibk.swa.util.ConversionUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -39,11 +40,14 @@ public class HeaderTokenAuthenticationFilter extends AbstractAuthenticationProce
         Optional<UsernamePasswordAuthenticationToken> authenticationToken =
                 // Get the Authorization Header
                 Optional.ofNullable(httpServletRequest.getHeader(AUTHORIZATION))
-                        // The Jwt Token is stored in the Authorization Header
-                        .map(ConversionUtil::tryConvertJwtToken)
+                        // The Jwt Token (or signed Bearer-Token) is stored in the Authorization Header
+                        .map(HeaderTokenAuthenticationFilter::parseCredentials)
                         // If the JwtToken is a valid UUID then pass it onto the AuthenticationFilter
                         .map(token -> new UsernamePasswordAuthenticationToken(null, token));
 
+        // Pass the IP-Address along, so Clients sending invalid Tokens can be throttled
+        authenticationToken.ifPresent(token -> token.setDetails(authenticationDetailsSource.buildDetails(httpServletRequest)));
+
         // If a Cookie-Token was found, pass it to the AuthenticationManager/AuthenticationProvider.
         if (authenticationToken.isPresent()) {
             return getAuthenticationManager().authenticate(authenticationToken.get());
@@ -52,6 +56,19 @@ public class HeaderTokenAuthenticationFilter extends AbstractAuthenticationProce
         throw new AuthenticationCredentialsNotFoundException("No Token was sent with the Request!");
     }
 
+    /**
+     * Parses the Value of the Authorization Header.
+     * Whether the Token Type is accepted is decided by the {@link org.springframework.security.authentication.AuthenticationProvider}.
+     *
+     * @param header The Value of the Authorization Header.
+     * @return A {@link BearerToken} if the Header starts with "Bearer ", the parsed {@link at.ac.uibk.swa.config.jwt_authentication.JwtToken} otherwise.
+     */
+    private static Object parseCredentials(String header) {
+        if (header.startsWith(BearerToken.PREFIX))
+            return new BearerToken(header.substring(BearerToken.PREFIX.length()));
+        return ConversionUtil.tryConvertJwtToken(header);
+    }
+
     @Override
     protected void successfulAuthentication(
             final HttpServletRequest request, final HttpServletResponse response,
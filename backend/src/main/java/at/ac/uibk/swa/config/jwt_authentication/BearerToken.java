@@ -0,0 +1,17 @@
+package at.ac.uibk.swa.config.jwt_authentication;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The raw, not yet verified Value of a "Bearer"-Authorization Header.
+ *
+ * @see SignedToken
+ */
+@Getter
+@AllArgsConstructor
+public class BearerToken {
+    public static final String PREFIX = "Bearer ";
+
+    private String value;
+}
@@ -3,18 +3,22 @@ package at.ac.uibk.swa.config.jwt_authentication;
 import at.ac.uibk.swa.models.Authenticable;
 import at.ac.uibk.swa.models.Person;
 import at.ac.uibk.swa.models.exceptions.TokenExpiredException;
+import at.ac.uibk.swa.service.AuthenticationThrottleService;
 import at.ac.uibk.swa.service.LoginService;
-import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.service.TokenService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.authentication.dao.AbstractUserDetailsAuthenticationProvider;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -34,6 +38,12 @@ public class JwtTokenAuthenticationProvider extends AbstractUserDetailsAuthentic
     @Autowired
     private LoginService loginService;
 
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private AuthenticationThrottleService authenticationThrottleService;
+
     @Value("${swa.token.expiration-duration:1h}")
     private Duration tokenExpirationDuration;
 
@@ -50,13 +60,63 @@ public class JwtTokenAuthenticationProvider extends AbstractUserDetailsAuthentic
             String userName,
             UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken
     ) {
-        JwtToken token = (JwtToken) usernamePasswordAuthenticationToken.getCredentials();
+        Object credentials = usernamePasswordAuthenticationToken.getCredentials();
+        if (credentials instanceof BearerToken bearerToken)
+            return retrieveSignedUser(bearerToken);
+
+        // NOTE: Only accept the Token Type of the configured Token Mode.
+        if (!(credentials instanceof JwtToken token) || tokenService.isSignedMode())
+            throw new BadCredentialsException("Unsupported authentication token!");
+
+        // NOTE: Valid Sessions are answered from the Cache without touching the Database, so they are never throttled.
+        //       Otherwise one Client replaying invalid Tokens would lock out every User behind the same Address (NAT, Proxy).
+        String source = getSource(usernamePasswordAuthenticationToken);
+        Optional<? extends Authenticable> maybeAuthenticable = loginService.login(token, () -> {
+            // Reject Clients that keep sending invalid Tokens before looking up the Token
+            authenticationThrottleService.checkThrottled(source);
+            if (authenticationThrottleService.isRejected(source, token))
+                throw new BadCredentialsException(formatTokenError(token.getToken()));
+        });
+        if (maybeAuthenticable.isEmpty()) {
+            authenticationThrottleService.reject(source, token);
+            throw new BadCredentialsException(formatTokenError(token.getToken()));
+        }
+
+        Authenticable authenticable = maybeAuthenticable.get();
+        this.checkTokenExpired(authenticable);
+        authenticationThrottleService.admit();
+        return authenticable;
+    }
+
+    /**
+     * Gets the IP-Address of the Client (set as Details by the {@link at.ac.uibk.swa.config.filters.HeaderTokenAuthenticationFilter}).
+     *
+     * @return The IP-Address, or null if it is unknown.
+     */
+    private static String getSource(UsernamePasswordAuthenticationToken authenticationToken) {
+        return authenticationToken.getDetails() instanceof WebAuthenticationDetails details
+                ? details.getRemoteAddress()
+                : null;
+    }
+
+    /**
+     * Verifies a signed Token entirely in memory and builds the Principal from its Contents.
+     *
+     * @param bearerToken The raw Token sent with the Request.
+     * @return A detached Person containing the ID, Username and Permissions stored in the Token.
+     */
+    private UserDetails retrieveSignedUser(BearerToken bearerToken) {
+        SignedToken token = tokenService.verifyToken(bearerToken.getValue())
+                .orElseThrow(() -> new BadCredentialsException("Invalid or revoked authentication token!"));
 
-        // Try to find the User with the given Session Token
-        Optional<? extends Authenticable> maybeAuthenticable= loginService.login(token);
-        return maybeAuthenticable 
-                .map(authenticable -> {this.checkTokenExpired(authenticable); return authenticable;})
-                .orElseThrow(() -> new BadCredentialsException(formatTokenError(token.getToken())));
+        Person person = Person.builder()
+                .id(token.getPersonId())
+                .username(token.getUsername())
+                .permissions(new HashSet<>(token.getPermissions()))
+                .tokenCreationDate(LocalDateTime.ofInstant(token.getIssuedAt(), ZoneId.systemDefault()))
+                .build();
+        this.checkTokenExpired(person);
+        return person;
     }
 
     private static String formatTokenError(UUID token) {
@@ -0,0 +1,239 @@
+package at.ac.uibk.swa.config.jwt_authentication;
+
+import java.util.UUID;
+
+/**
+ * Streaming Parser for the {@link JwtToken} sent in the Authorization Header.
+ * <br/>
+ * The Header has the fixed Format <code>{"username": "...", "token": "&lt;UUID&gt;"}</code>,
+ * so instead of building an ObjectMapper and a JSON-Tree for every Request,
+ * the Characters are read directly and the Token is parsed straight into a {@link UUID}.
+ * <br/>
+ * The Parser is intentionally strict: Unknown or duplicate Fields, missing Fields,
+ * non-String Values and oversized Inputs are all rejected.
+ *
+ * @see at.ac.uibk.swa.util.ConversionUtil#tryConvertJwtToken(String)
+ */
+public final class JwtTokenParser {
+
+    /**
+     * Upper Bound for the Length of a Header, longer Inputs are rejected without looking at them.
+     */
+    public static final int MAX_INPUT_LENGTH = 1024;
+
+    private static final String USERNAME_FIELD = "username";
+    private static final String TOKEN_FIELD = "token";
+    private static final int UUID_LENGTH = 36;
+
+    private final String input;
+    private int position = 0;
+
+    private JwtTokenParser(String input) {
+        this.input = input;
+    }
+
+    /**
+     * Parses a {@link JwtToken} from the given Header Value.
+     *
+     * @param input The Value of the Authorization Header.
+     * @return The parsed {@link JwtToken}, or null if the Input is not a valid Token.
+     */
+    public static JwtToken parse(String input) {
+        if (input == null || input.length() > MAX_INPUT_LENGTH)
+            return null;
+        return new JwtTokenParser(input).parseToken();
+    }
+
+    //region Grammar
+    private JwtToken parseToken() {
+        String username = null;
+        UUID token = null;
+
+        skipWhitespace();
+        if (!consume('{'))
+            return null;
+
+        do {
+            skipWhitespace();
+            if (!consume('"'))
+                return null;
+            int keyStart = position;
+            // NOTE: Field Names are compared in place, escaped Field Names are not supported.
+            int keyEnd = input.indexOf('"', keyStart);
+            if (keyEnd < 0)
+                return null;
+            position = keyEnd + 1;
+
+            skipWhitespace();
+            if (!consume(':'))
+                return null;
+            skipWhitespace();
+
+            if (isField(keyStart, keyEnd, USERNAME_FIELD) && username == null) {
+                username = parseString();
+                if (username == null)
+                    return null;
+            } else if (isField(keyStart, keyEnd, TOKEN_FIELD) && token == null) {
+                token = parseUUID();
+                if (token == null)
+                    return null;
+            } else {
+                // Unknown or duplicate Field
+                return null;
+            }
+
+            skipWhitespace();
+        } while (consume(','));
+
+        if (!consume('}'))
+            return null;
+        skipWhitespace();
+
+        // Both Fields are required and there must not be any trailing Characters.
+        if (position != input.length() || username == null || token == null)
+            return null;
+
+        return new JwtToken(username, token);
+    }
+
+    private boolean isField(int start, int end, String field) {
+        return (end - start) == field.length() && input.regionMatches(start, field, 0, field.length());
+    }
+
+    /**
+     * Parses a JSON-String, only allocating a Buffer if the String contains Escape Sequences.
+     *
+     * @return The unescaped String, or null if the String is malformed.
+     */
+    private String parseString() {
+        if (!consume('"'))
+            return null;
+
+        int start = position;
+        StringBuilder unescaped = null;
+
+        while (position < input.length()) {
+            char c = input.charAt(position);
+            if (c == '"') {
+                String result = (unescaped == null)
+                        ? input.substring(start, position)
+                        : unescaped.append(input, start, position).toString();
+                position++;
+                return result;
+            } else if (c == '\\') {
+                if (unescaped == null)
+                    unescaped = new StringBuilder(input.length());
+                unescaped.append(input, start, position);
+                position++;
+                int escaped = parseEscape();
+                if (escaped < 0)
+                    return null;
+                unescaped.append((char) escaped);
+                start = position;
+            } else if (c < 0x20) {
+                // Control Characters have to be escaped in JSON.
+                return null;
+            } else {
+                position++;
+            }
+        }
+
+        // Unterminated String
+        return null;
+    }
+
+    private int parseEscape() {
+        if (position >= input.length())
+            return -1;
+
+        char c = input.charAt(position++);
+        return switch (c) {
+            case '"', '\\', '/' -> c;
+            case 'b' -> '\b';
+            case 'f' -> '\f';
+            case 'n' -> '\n';
+            case 'r' -> '\r';
+            case 't' -> '\t';
+            case 'u' -> {
+                if (position + 4 > input.length())
+                    yield -1;
+                long value = parseHex(position, position + 4);
+                position += 4;
+                yield (int) value;
+            }
+            default -> -1;
+        };
+    }
+
+    /**
+     * Parses a quoted UUID in its canonical Form (8-4-4-4-12 Hex Digits) without creating intermediate Strings.
+     *
+     * @return The parsed UUID, or null if it is malformed.
+     */
+    private UUID parseUUID() {
+        int start = position + 1;
+        int end = start + UUID_LENGTH;
+        if (end >= input.length() || input.charAt(position) != '"' || input.charAt(end) != '"')
+            return null;
+        if (input.charAt(start + 8) != '-' || input.charAt(start + 13) != '-'
+                || input.charAt(start + 18) != '-' || input.charAt(start + 23) != '-')
+            return null;
+
+        long timeLow = parseHex(start, start + 8);
+        long timeMid = parseHex(start + 9, start + 13);
+        long timeHigh = parseHex(start + 14, start + 18);
+        long clockSequence = parseHex(start + 19, start + 23);
+        long node = parseHex(start + 24, end);
+        // NOTE: Every Group has at most 48 Bits, so it is only negative if it contained an invalid Digit.
+        if ((timeLow | timeMid | timeHigh | clockSequence | node) < 0)
+            return null;
+
+        long mostSignificant = (timeLow << 32) | (timeMid << 16) | timeHigh;
+        long leastSignificant = (clockSequence << 48) | node;
+
+        position = end + 1;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+    //endregion
+
+    //region Character Helpers
+    private void skipWhitespace() {
+        while (position < input.length()) {
+            char c = input.charAt(position);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r')
+                return;
+            position++;
+        }
+    }
+
+    private boolean consume(char expected) {
+        if (position < input.length() && input.charAt(position) == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Parses the Hex Digits in the given Range, returning -1 if any of them is not a Hex Digit.
+     */
+    private long parseHex(int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = hexDigit(input.charAt(i));
+            if (digit < 0)
+                return -1;
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    private static int hexDigit(char c) {
+        // NOTE: Character.digit would also accept non-ASCII Digits.
+        if (c >= '0' && c <= '9') return c - '0';
+        if (c >= 'a' && c <= 'f') return c - 'a' + 10;
+        if (c >= 'A' && c <= 'F') return c - 'A' + 10;
+        return -1;
+    }
+    //endregion
+}
@@ -0,0 +1,23 @@
+package at.ac.uibk.swa.config.jwt_authentication;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The verified Contents of a self-contained, signed Token.
+ *
+ * @see at.ac.uibk.swa.service.TokenService
+ */
+@Getter
+@AllArgsConstructor
+public class SignedToken {
+    private UUID personId;
+    private String username;
+    private Set<GrantedAuthority> permissions;
+    private Instant issuedAt;
+}
@@ -0,0 +1,197 @@
+package at.ac.uibk.swa.config.request_matchers;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.*;
+
+/**
+ * Precompiled Matcher deciding whether a Request targets a {@link at.ac.uibk.swa.models.annotations.PublicEndpoint}.
+ * <br/>
+ * All Patterns are compiled into a Trie of Path Segments on Startup, so a Request Path is matched against
+ * all public Endpoints in a single Pass instead of trying every Pattern one after another.
+ * Segments are either literal, a single-Segment Wildcard ("*" or "{variable}")
+ * or a Catch-All ("**" or "{*variable}") at the End of the Pattern.
+ * Patterns with more complex Segments (e.g. "file-*.json" or "{id:[0-9]+}") are matched using their {@link PathPattern}.
+ * <br/>
+ * The Result is stored as a Request Attribute, because the Filter Chain asks multiple Times per Request
+ * (by the Authentication Filter and by the Authorization).
+ * <br/>
+ * Matching is strict: Paths with a trailing Slash or empty Segments are never public.
+ * They are treated as protected, so they can never be used to skip the Authentication.
+ */
+public class PublicEndpointMatcher implements RequestMatcher {
+
+    private static final String MEMO_ATTRIBUTE = PublicEndpointMatcher.class.getName() + ".MATCH";
+
+    /**
+     * The memoized Result for a Request. The Path is stored too, because a Request may be
+     * forwarded to another Path (e.g. the Error Endpoint) while keeping its Attributes.
+     */
+    private record Memo(String path, boolean matches) { }
+
+    private static final class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private Node wildcard;
+        private boolean catchAll;
+        private boolean terminal;
+    }
+
+    private final Node root = new Node();
+    private final List<PathPattern> complexPatterns = new ArrayList<>();
+
+    /**
+     * Compiles the given Patterns into a Matcher.
+     *
+     * @param patterns The Patterns of all public Endpoints (as used by {@link PathPattern}).
+     */
+    public PublicEndpointMatcher(Collection<String> patterns) {
+        patterns.forEach(this::addPattern);
+    }
+
+    //region Compilation
+    private enum SegmentType { LITERAL, WILDCARD, CATCH_ALL, COMPLEX }
+
+    private static SegmentType classify(String segment) {
+        if (segment.equals("**") || (segment.startsWith("{*") && segment.endsWith("}")))
+            return SegmentType.CATCH_ALL;
+        if (segment.equals("*"))
+            return SegmentType.WILDCARD;
+        if (segment.length() > 2 && segment.startsWith("{") && segment.endsWith("}")
+                && segment.indexOf('{', 1) < 0 && segment.indexOf(':') < 0)
+            return SegmentType.WILDCARD;
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c == '*' || c == '?' || c == '{' || c == '}')
+                return SegmentType.COMPLEX;
+        }
+        return SegmentType.LITERAL;
+    }
+
+    private void addPattern(String pattern) {
+        String[] segments = pattern.startsWith("/")
+                ? pattern.substring(1).split("/", -1)
+                : new String[] { pattern };
+
+        SegmentType[] types = new SegmentType[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            types[i] = classify(segments[i]);
+            boolean catchAllInMiddle = types[i] == SegmentType.CATCH_ALL && i != segments.length - 1;
+            if (!pattern.startsWith("/") || types[i] == SegmentType.COMPLEX || catchAllInMiddle) {
+                complexPatterns.add(PathPatternParser.defaultInstance.parse(pattern));
+                return;
+            }
+        }
+
+        // NOTE: The Pattern "/" is the only Pattern with an empty Segment that is stored in the Trie.
+        if (pattern.equals("/")) {
+            root.terminal = true;
+            return;
+        }
+
+        Node node = root;
+        for (int i = 0; i < segments.length; i++) {
+            switch (types[i]) {
+                case CATCH_ALL -> {
+                    node.catchAll = true;
+                    return;
+                }
+                case WILDCARD -> {
+                    if (node.wildcard == null)
+                        node.wildcard = new Node();
+                    node = node.wildcard;
+                }
+                default -> node = node.literals.computeIfAbsent(segments[i], segment -> new Node());
+            }
+        }
+        node.terminal = true;
+    }
+    //endregion
+
+    //region Matching
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        String path = getRequestPath(request);
+
+        if (request.getAttribute(MEMO_ATTRIBUTE) instanceof Memo memo && memo.path().equals(path))
+            return memo.matches();
+
+        boolean matches = matchesPath(path);
+        request.setAttribute(MEMO_ATTRIBUTE, new Memo(path, matches));
+        return matches;
+    }
+
+    /**
+     * Checks whether the given Path belongs to a public Endpoint.
+     *
+     * @param path The Path within the Application (starting with a Slash).
+     * @return true if the Endpoint is public, false otherwise.
+     */
+    public boolean matchesPath(String path) {
+        if (path == null || path.isEmpty() || path.charAt(0) != '/')
+            return false;
+        if (path.length() == 1)
+            return root.terminal || root.catchAll;
+        if (path.charAt(path.length() - 1) == '/' || path.contains("//"))
+            return false;
+
+        return matchSegments(root, path, 1) || matchesComplexPattern(path);
+    }
+
+    /**
+     * Matches the Segment starting at the given Index (and all following Segments) against the Children of the Node.
+     */
+    private static boolean matchSegments(Node node, String path, int start) {
+        if (node.catchAll)
+            return true;
+
+        int end = path.indexOf('/', start);
+        if (end < 0)
+            end = path.length();
+
+        Node literal = node.literals.isEmpty() ? null : node.literals.get(path.substring(start, end));
+        return (literal != null && matchRest(literal, path, end))
+                || (node.wildcard != null && matchRest(node.wildcard, path, end));
+    }
+
+    private static boolean matchRest(Node node, String path, int segmentEnd) {
+        if (segmentEnd == path.length())
+            return node.terminal || node.catchAll;
+        return matchSegments(node, path, segmentEnd + 1);
+    }
+
+    private boolean matchesComplexPattern(String path) {
+        if (complexPatterns.isEmpty())
+            return false;
+
+        PathContainer pathContainer = PathContainer.parsePath(path);
+        for (PathPattern pattern : complexPatterns) {
+            if (pattern.matches(pathContainer))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the Path the same Way the {@link org.springframework.security.web.util.matcher.AntPathRequestMatcher} does.
+     */
+    private static String getRequestPath(HttpServletRequest request) {
+        String servletPath = request.getServletPath();
+        String pathInfo = request.getPathInfo();
+        return pathInfo == null ? servletPath : servletPath + pathInfo;
+    }
+    //endregion
+
+    /**
+     * Gets the inverse Matcher, which matches all Requests to protected Endpoints.
+     * It shares the memoized Result with this Matcher.
+     *
+     * @return The Matcher for protected Endpoints.
+     */
+    public RequestMatcher protectedEndpoints() {
+        return request -> !this.matches(request);
+    }
+}
@@ -8,6 +8,7 @@ import at.ac.uibk.swa.models.rest_responses.LoginResponse;
 import at.ac.uibk.swa.models.rest_responses.MessageResponse;
 import at.ac.uibk.swa.models.rest_responses.RestResponseEntity;
 import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.service.TokenService;
 import lombok.SneakyThrows;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -32,6 +33,9 @@ public class LoginController {
     @Autowired
     private PersonService personService;
 
+    @Autowired
+    private TokenService tokenService;
+
     /**
      * Endpoint for the Front-End to request an Authentication Token.
      *
@@ -55,15 +59,17 @@ public class LoginController {
                     .toEntity();
         }
 
+        Person person = maybePerson.get();
         return LoginResponse.builder()
                 .ok()
-                .person(maybePerson.get())
+                .person(person)
+                .token(tokenService.createToken(person))
                 .toEntity();
     }
 
     /**
      * Endpoint for the Front-End to logout.
-     * This deletes the Authentication Token stored in the database.
+     * This deletes the Authentication Token stored in the database (or revokes the signed Tokens of the User).
      *
      * @return A Message saying whether the Logout was successful or not.
      */
@@ -5,14 +5,30 @@ import at.ac.uibk.swa.models.Person;
 import at.ac.uibk.swa.models.annotations.AnyPermission;
 import at.ac.uibk.swa.models.annotations.ApiRestController;
 import at.ac.uibk.swa.models.annotations.PublicEndpoint;
+import at.ac.uibk.swa.models.rest_responses.BulkOperationResponse;
 import at.ac.uibk.swa.models.rest_responses.CreatedUserResponse;
 import at.ac.uibk.swa.models.rest_responses.ListResponse;
 import at.ac.uibk.swa.models.rest_responses.MessageResponse;
+import at.ac.uibk.swa.models.rest_responses.PageResponse;
 import at.ac.uibk.swa.models.rest_responses.RestResponse;
+import at.ac.uibk.swa.models.rest_responses.RestResponseEntity;
+import at.ac.uibk.swa.service.PersonBulkService;
+import at.ac.uibk.swa.service.PersonSearchService;
 import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.util.SerializationUtil;
+import at.ac.uibk.swa.util.UUIDUtil;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Stream;
@@ -31,8 +47,17 @@ public class PersonController {
     //region Autowired Components
     @Autowired
     private PersonService personService;
+
+    @Autowired
+    private PersonBulkService personBulkService;
+
+    @Autowired
+    private PersonSearchService personSearchService;
     //endregion
 
+    @Value("${swa.persons.bulk.max-size:50000}")
+    private int maxBulkSize;
+
     //region User Creation Endpoints
     /**
      * User Registration Endpoint for Users to create an Account by themselves.
@@ -49,7 +74,7 @@ public class PersonController {
             @RequestParam("password") final String password,
             @RequestParam("email") final String email
     ) {
-        UUID token = UUID.randomUUID();
+        UUID token = UUIDUtil.randomTimeOrderedUUID();
         Person person = new Person(username, email, password, token, (Set) Permission.defaultPermissions());
 
         return createUser(person);
@@ -77,6 +102,29 @@ public class PersonController {
         return createUser(person);
     }
 
+    /**
+     * User Creation Endpoint for Admins to create many Accounts at once.
+     * Users whose Username is invalid or already taken are skipped, all others are created.
+     *
+     * @param newPersons The new Users (Username, Email, Password and optionally Permissions).
+     * @return A RestResponse containing the Result for every User (in the same Order).
+     */
+    @AnyPermission(Permission.ADMIN)
+    @PostMapping("/create-users")
+    public RestResponseEntity createUsers(
+            @RequestBody final List<PersonBulkService.NewPerson> newPersons
+    ) {
+        if (newPersons.size() > maxBulkSize) {
+            return MessageResponse.builder()
+                    .error()
+                    .message("Could not create Users - At most " + maxBulkSize + " Users can be created at once!")
+                    .statusCode(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .toEntity();
+        }
+
+        return new ListResponse<>(personBulkService.createAll(newPersons)).toEntity();
+    }
+
     /**
      * Helper Function for saving a Person and returning a corresponding RestResponse.
      *
@@ -111,11 +159,36 @@ public class PersonController {
             @RequestParam(name = "permissions", required = false) final Set<Permission> permissions,
             @RequestParam(name = "password", required = false) final String password
     ) {
-        if (personService.update(personId, username, permissions, password))
+        if (personService.update(personId, username, email, permissions, password))
             return new MessageResponse(true, "User " + personId + " updated successfully!");
 
         return new MessageResponse(false, "Could not update User " + personId + " - User does not exist!");
     }
+
+    /**
+     * Endpoint for Admins to grant or revoke Permissions of many users at once.
+     * The users are selected either by their IDs or by the Domain of their Email.
+     *
+     * @param personIds The IDs of the users to update.
+     * @param emailDomain The Email Domain of the users to update (e.g. "example.com").
+     * @param granted The Permissions to grant.
+     * @param revoked The Permissions to revoke.
+     * @return A RestResponse containing the Number of updated users.
+     */
+    @AnyPermission(Permission.ADMIN)
+    @PostMapping("/update-users-permissions")
+    public RestResponseEntity updateUsersPermissions(
+            @RequestParam(name = "personIds", required = false) final List<UUID> personIds,
+            @RequestParam(name = "emailDomain", required = false) final String emailDomain,
+            @RequestParam(name = "grant", required = false) final Set<Permission> granted,
+            @RequestParam(name = "revoke", required = false) final Set<Permission> revoked
+    ) {
+        PersonBulkService.PersonFilter filter = new PersonBulkService.PersonFilter(personIds, emailDomain);
+        if (!filter.isValid())
+            return invalidFilterResponse();
+
+        return new BulkOperationResponse(personBulkService.updatePermissions(filter, granted, revoked)).toEntity();
+    }
     //endregion
 
     //region Delete User Endpoints
@@ -135,6 +208,40 @@ public class PersonController {
 
         return new MessageResponse(true, "User " + personId + " deleted successfully!");
     }
+
+    /**
+     * Endpoint for Admins to delete many users at once (e.g. all users of a Tenant).
+     * The users are selected either by their IDs or by the Domain of their Email.
+     *
+     * @param personIds The IDs of the users to delete.
+     * @param emailDomain The Email Domain of the users to delete (e.g. "example.com").
+     * @return A RestResponse containing the Number of deleted users.
+     */
+    @AnyPermission(Permission.ADMIN)
+    @DeleteMapping("/delete-users")
+    public RestResponseEntity deleteUsers(
+            @RequestParam(name = "personIds", required = false) final List<UUID> personIds,
+            @RequestParam(name = "emailDomain", required = false) final String emailDomain
+    ) {
+        PersonBulkService.PersonFilter filter = new PersonBulkService.PersonFilter(personIds, emailDomain);
+        if (!filter.isValid())
+            return invalidFilterResponse();
+
+        return new BulkOperationResponse(personBulkService.deleteAll(filter)).toEntity();
+    }
+
+    /**
+     * Helper Function for rejecting Bulk Operations without a valid Selection of Users.
+     *
+     * @return A RestResponse indicating that the Selection is invalid.
+     */
+    private RestResponseEntity invalidFilterResponse() {
+        return MessageResponse.builder()
+                .error()
+                .message("Either the IDs or the Email Domain of the Users must be given!")
+                .statusCode(HttpStatus.BAD_REQUEST)
+                .toEntity();
+    }
     //endregion
 
     //region GET Endpoints
@@ -146,7 +253,115 @@ public class PersonController {
     @AnyPermission(Permission.ADMIN)
     @GetMapping("/get-all-users")
     public RestResponse getAllUsers() {
-        return new ListResponse<>(personService.getPersons());
+        return new ListResponse<>(personService.getPersonSummaries());
+    }
+
+    /**
+     * Endpoint for Admins to page through all users.
+     *
+     * @param order The Ordering of the users ("USERNAME" or "ID").
+     * @param cursor The "nextCursor" of the previous Page (missing for the first Page).
+     * @param limit The maximum Number of users on the Page.
+     * @return A RestResponse containing the Page of users and the Cursor of the next Page ("400 Bad Request" if the Cursor is invalid).
+     */
+    @AnyPermission(Permission.ADMIN)
+    @GetMapping("/get-users-page")
+    public RestResponseEntity getUsersPage(
+            @RequestParam(name = "order", defaultValue = "USERNAME") final PersonService.PersonOrder order,
+            @RequestParam(name = "cursor", required = false) final String cursor,
+            @RequestParam(name = "limit", defaultValue = "50") final int limit
+    ) {
+        return personService.getPersonsPage(order, cursor, limit)
+                .map(page -> new PageResponse<>(page.persons(), page.nextCursor()).toEntity())
+                .orElseGet(() -> MessageResponse.builder()
+                        .error()
+                        .message("Invalid Cursor for Ordering " + order + "!")
+                        .statusCode(HttpStatus.BAD_REQUEST)
+                        .toEntity());
+    }
+
+    /**
+     * Endpoint for Admins to find users by the Beginning of their Username or Email (e.g. for a Type-Ahead Search).
+     *
+     * @param query The Beginning of the Username or Email (ignoring Case).
+     * @param limit The maximum Number of users to return.
+     * @return A RestResponse containing the ID, Username and Email of the matching users.
+     */
+    @AnyPermission(Permission.ADMIN)
+    @GetMapping("/search-users")
+    public RestResponse searchUsers(
+            @RequestParam("query") final String query,
+            @RequestParam(name = "limit", defaultValue = "10") final int limit
+    ) {
+        return new ListResponse<>(personSearchService.search(query, limit));
+    }
+
+    /**
+     * Endpoint for Admins to get all users without loading them into Memory first.
+     * The Users are written as they are read from the Database, in the same Format as {@link #getAllUsers()}.
+     *
+     * @return A Response streaming a List of all users.
+     */
+    @AnyPermission(Permission.ADMIN)
+    @GetMapping(value = "/stream-all-users", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream -> {
+                    try (JsonGenerator generator = SerializationUtil.createJSONGenerator(outputStream, false)) {
+                        // NOTE: Mirror the Fields of a ListResponse so the Front-End can handle both Endpoints alike.
+                        generator.writeStartObject();
+                        generator.writeBooleanField("success", true);
+                        generator.writeStringField("type", "List");
+                        generator.writeArrayFieldStart("items");
+                        writeAllUsers(generator, false);
+                        generator.writeEndArray();
+                        generator.writeEndObject();
+                    }
+                });
+    }
+
+    /**
+     * Endpoint for Admins to get all users as Newline-delimited JSON (one User per Line).
+     * The Users are written as they are read from the Database.
+     *
+     * @return A Response streaming all users.
+     */
+    @AnyPermission(Permission.ADMIN)
+    @GetMapping(value = "/stream-all-users", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllUsersAsLines() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> {
+                    try (JsonGenerator generator = SerializationUtil.createJSONGenerator(outputStream, true)) {
+                        // NOTE: Every Line is terminated explicitly, so no additional Separator is needed between them.
+                        generator.setRootValueSeparator(null);
+                        writeAllUsers(generator, true);
+                    }
+                });
+    }
+
+    /**
+     * Helper Function for writing all Persons to a Generator as they are read.
+     *
+     * @param generator The Generator to write to.
+     * @param lineDelimited true to end every Person with a Newline.
+     * @throws IOException If a Person could not be written.
+     */
+    private void writeAllUsers(JsonGenerator generator, boolean lineDelimited) throws IOException {
+        try {
+            personService.forEachPersonSummary(person -> {
+                try {
+                    SerializationUtil.writeJSON(generator, person);
+                    if (lineDelimited)
+                        generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
     }
 
     /**
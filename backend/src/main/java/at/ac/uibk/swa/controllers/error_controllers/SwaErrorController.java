@@ -1,6 +1,8 @@
 package at.ac.uibk.swa.controllers.error_controllers;
 
 import at.ac.uibk.swa.models.annotations.ApiRestController;
+import at.ac.uibk.swa.models.exceptions.AuthenticationThrottledException;
+import at.ac.uibk.swa.models.exceptions.ServiceOverloadedException;
 import at.ac.uibk.swa.models.exceptions.TokenExpiredException;
 import at.ac.uibk.swa.models.rest_responses.MessageResponse;
 import at.ac.uibk.swa.models.rest_responses.RedirectResponse;
@@ -9,11 +11,15 @@ import at.ac.uibk.swa.models.rest_responses.TokenExpiredResponse;
 import at.ac.uibk.swa.util.EndpointMatcherUtil;
 import at.ac.uibk.swa.util.SerializationUtil;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.web.servlet.error.ErrorController;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -21,7 +27,7 @@ import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStream;
 
 import static at.ac.uibk.swa.util.EndpointMatcherUtil.ErrorEndpoints.*;
 import static org.springframework.web.bind.annotation.RequestMethod.*;
@@ -32,12 +38,63 @@ import static org.springframework.web.bind.annotation.RequestMethod.*;
  * @author David Rieser
  */
 @ApiRestController
+// NOTE: The constant Responses are rendered on Startup, so the Serialization must already be configured.
+@DependsOn("serializationConfig")
 @SuppressWarnings("unused")
 public class SwaErrorController implements ErrorController {
 
     @Autowired
     private EndpointMatcherUtil endpointMatcherUtil;
 
+    //region Pre-rendered Responses
+    /**
+     * Error Response whose Body never changes, so it only has to be serialized once.
+     *
+     * @param status The Status Code of the Response.
+     * @param body The serialized Body of the Response.
+     */
+    private record RenderedResponse(int status, byte[] body) {
+
+        static RenderedResponse render(RestResponseEntity responseEntity) {
+            byte[] body = SerializationUtil.serializeJSONBytes(responseEntity.getBody());
+            if (body == null)
+                throw new IllegalStateException("Could not serialize the static Error Response!");
+            return new RenderedResponse(responseEntity.getStatusCode().value(), body);
+        }
+
+        void writeTo(HttpServletResponse response) throws IOException {
+            response.setStatus(status);
+            writeBody(response, body);
+        }
+    }
+
+    // NOTE: The Error Path is the hottest Path when someone tries out Credentials,
+    //       so the constant Responses are not rebuilt and serialized for every Request.
+    private RenderedResponse authenticationErrorResponse;
+    private RenderedResponse authorizationErrorResponse;
+    private RenderedResponse notFoundErrorResponse;
+    private RenderedResponse internalErrorResponse;
+
+    @PostConstruct
+    private void renderStaticResponses() {
+        this.authenticationErrorResponse = RenderedResponse.render(handleAuthenticationError(null, null, null));
+        this.authorizationErrorResponse = RenderedResponse.render(handleAuthorizationError(null, null, null));
+        this.notFoundErrorResponse = RenderedResponse.render(MessageResponse.builder()
+                .message("Endpoint not found!")
+                .statusCode(HttpStatus.NOT_FOUND)
+                .toEntity());
+        this.internalErrorResponse = RenderedResponse.render(handleError(null, null, null));
+    }
+
+    private static void writeBody(HttpServletResponse response, byte[] body) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        try (OutputStream outputStream = response.getOutputStream()) {
+            outputStream.write(body);
+        }
+    }
+    //endregion
+
     private RedirectResponse generateRedirectFromException(Exception exception) {
         return generateRedirectFromException(404, exception);
     }
@@ -80,6 +137,22 @@ public class SwaErrorController implements ErrorController {
                 .toEntity();
     }
 
+    public RestResponseEntity handleAuthenticationThrottledError(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            AuthenticationThrottledException authenticationThrottledException
+    ) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, authenticationThrottledException.getRetryAfter().toSeconds())));
+        return new RestResponseEntity(
+                MessageResponse.builder()
+                        .message("Too many invalid Tokens, please try again later!")
+                        .statusCode(HttpStatus.TOO_MANY_REQUESTS)
+                        .build(),
+                headers
+        );
+    }
+
     @ResponseBody
     @RequestMapping(value = AUTHORIZATION_ERROR_ENDPOINT, method = {GET, POST, PUT, PATCH, DELETE})
     @ResponseStatus(HttpStatus.FORBIDDEN)
@@ -94,17 +167,28 @@ public class SwaErrorController implements ErrorController {
             .toEntity();
     }
 
-    @ResponseBody
     @RequestMapping(value = NOT_FOUND_ERROR_ENDPOINT, method = {GET, POST, PUT, PATCH, DELETE})
-    @ResponseStatus(HttpStatus.NOT_FOUND)
-    public RestResponseEntity handleNotFoundError(
+    public void handleNotFoundError(
             HttpServletRequest request,
             HttpServletResponse response
+    ) throws IOException {
+        notFoundErrorResponse.writeTo(response);
+    }
+
+    public RestResponseEntity handleServiceOverloadedError(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            ServiceOverloadedException serviceOverloadedException
     ) {
-        return MessageResponse.builder()
-            .message("Endpoint not found!")
-            .statusCode(HttpStatus.NOT_FOUND)
-            .toEntity();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, serviceOverloadedException.getRetryAfter().toSeconds())));
+        return new RestResponseEntity(
+                MessageResponse.builder()
+                        .message("Service is overloaded, please try again later!")
+                        .statusCode(HttpStatus.SERVICE_UNAVAILABLE)
+                        .build(),
+                headers
+        );
     }
 
     @ResponseBody
@@ -132,33 +216,37 @@ public class SwaErrorController implements ErrorController {
         if (exception instanceof AuthenticationException authenticationException) {
             if (exception instanceof TokenExpiredException tokenExpiredException) {
                 responseEntity = handleTokenExpiredError(request, response, tokenExpiredException);
+            } else if (exception instanceof AuthenticationThrottledException authenticationThrottledException) {
+                responseEntity = handleAuthenticationThrottledError(request, response, authenticationThrottledException);
             } else {
-                responseEntity = handleAuthenticationError(request, response, authenticationException);
+                authenticationErrorResponse.writeTo(response);
+                return;
             }
-        } else if (exception instanceof AccessDeniedException accessDeniedException) {
-            responseEntity = handleAuthorizationError(request, response, accessDeniedException);
+        } else if (exception instanceof AccessDeniedException) {
+            authorizationErrorResponse.writeTo(response);
+            return;
+        } else if (exception instanceof ServiceOverloadedException serviceOverloadedException) {
+            responseEntity = handleServiceOverloadedError(request, response, serviceOverloadedException);
         } else {
-            responseEntity = handleError(request, response, exception);
+            internalErrorResponse.writeTo(response);
+            return;
         }
 
-        try {
-            // Set the Response Status to the stored one
-            response.setStatus(responseEntity.getStatusCode().value());
-            // Add any custom Headers from the entity
-            responseEntity.getHeaders()
-                    .forEach((name, values) ->
-                            values.forEach(value -> response.addHeader(name, value))
-                    );
-
-            // Write the Body of the Request
-            String responseBody = SerializationUtil.serializeJSON(responseEntity.getBody());
-            if (responseBody != null) {
-                try (PrintWriter writer = response.getWriter()) {
-                    writer.write(responseBody);
-                }
-            }
+        // Set the Response Status to the stored one
+        response.setStatus(responseEntity.getStatusCode().value());
+        // Add any custom Headers from the entity
+        responseEntity.getHeaders()
+                .forEach((name, values) ->
+                        values.forEach(value -> response.addHeader(name, value))
+                );
+
+        // Write the Body of the Request
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (OutputStream outputStream = response.getOutputStream()) {
+            SerializationUtil.writeJSON(outputStream, responseEntity.getBody());
         } catch (JsonProcessingException e) {
-            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            if (!response.isCommitted())
+                response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
         }
     }
 }
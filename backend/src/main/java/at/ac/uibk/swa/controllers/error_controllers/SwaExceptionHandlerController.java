@@ -1,5 +1,6 @@
 package at.ac.uibk.swa.controllers.error_controllers;
 
+import at.ac.uibk.swa.models.exceptions.ServiceOverloadedException;
 import at.ac.uibk.swa.models.exceptions.TokenExpiredException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -57,6 +58,16 @@ public class SwaExceptionHandlerController extends ResponseEntityExceptionHandle
         errorController.handleErrorManual(request, response, accessDeniedException);
     }
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public void handleServiceOverloadedException(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            ServiceOverloadedException serviceOverloadedException
+    ) throws IOException {
+        errorController.handleErrorManual(request, response, serviceOverloadedException);
+    }
+
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public void handleException(
@@ -1,12 +1,13 @@
 package at.ac.uibk.swa.models;
 
+import at.ac.uibk.swa.models.converters.PermissionMaskConverter;
+import at.ac.uibk.swa.models.generators.TimeOrderedUUIDGenerator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
-import org.hibernate.annotations.Fetch;
-import org.hibernate.annotations.FetchMode;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 import org.springframework.security.core.CredentialsContainer;
@@ -24,7 +25,7 @@ import java.util.UUID;
 
 @Getter
 @Setter
-@SuperBuilder
+@SuperBuilder(toBuilder = true)
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
 @MappedSuperclass
@@ -35,7 +36,7 @@ public abstract class Authenticable implements UserDetails, CredentialsContainer
 
     //region Constructors
     protected Authenticable(String username, String password, UUID token, Set<GrantedAuthority> permissions) {
-        this(null, username, password, false, token, LocalDateTime.now(), permissions);
+        this(null, username, password, false, token, LocalDateTime.now(), permissions, null);
     }
 
     protected Authenticable(String username, String password, Set<GrantedAuthority> permissions) {
@@ -52,9 +53,10 @@ public abstract class Authenticable implements UserDetails, CredentialsContainer
     // NOTE: Classes that extend this should create a Getter with @JsonInclude to rename the ID.
     @JsonIgnore
     @Setter(AccessLevel.PRIVATE)
-    @JdbcTypeCode(SqlTypes.NVARCHAR)
+    // NOTE: The Column Type of all UUIDs is set using "swa.uuid.jdbc-type" (see application.yml).
     @Column(name = "auth_id", nullable = false)
-    @GeneratedValue(strategy=GenerationType.AUTO)
+    @GeneratedValue(generator = TimeOrderedUUIDGenerator.NAME)
+    @GenericGenerator(name = TimeOrderedUUIDGenerator.NAME, strategy = TimeOrderedUUIDGenerator.STRATEGY)
     private UUID id;
 
     @JdbcTypeCode(SqlTypes.NVARCHAR)
@@ -78,31 +80,63 @@ public abstract class Authenticable implements UserDetails, CredentialsContainer
     @Setter(AccessLevel.NONE)
     private boolean passwordHashed = true;
 
+    // NOTE: The Tokens are stored as separate Sessions (see PersonSession), so a Person can be logged in multiple Times.
+    //       These Fields only hold the Session of the current Login or Request.
+    @Transient
     @Setter(AccessLevel.NONE)
-    @JdbcTypeCode(SqlTypes.NVARCHAR)
-    @Column(name = "token", nullable = true, unique = true)
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private UUID token;
 
+    @Transient
     @Setter(AccessLevel.NONE)
     @Builder.Default
     @JsonProperty(access = JsonProperty.Access.READ_WRITE)
-    @Column(name = "token_creation_date", nullable = true, columnDefinition = "TIMESTAMP")
     private LocalDateTime tokenCreationDate = null;
 
     @Builder.Default
     @JsonProperty(access = JsonProperty.Access.READ_WRITE)
-    @Column(name = "name", nullable = false)
-    @Enumerated(EnumType.STRING)
-    @ElementCollection(targetClass = Permission.class, fetch = FetchType.EAGER)
-    @CollectionTable(name = "permission", joinColumns = @JoinColumn(name = "auth_id"))
-    @Fetch(FetchMode.SELECT)
+    // NOTE: The Permissions are stored as a Bitmask in the same Row (see Permission#mask()),
+    //       so loading a Person does not need a second Query.
+    //       Use "db/mysql/migrate_permissions_to_bitmask.sql" to convert an existing "permission"-Table.
+    @Column(name = "permissions", nullable = false)
+    @Convert(converter = PermissionMaskConverter.class)
     private Set<GrantedAuthority> permissions = Permission.defaultAuthorities();
 
     public void setPermissions(Set<Permission> permissions) {
         // SAFETY: Permission implements GrantedAuthority
         this.permissions = (Set) permissions;
     }
+
+    /**
+     * The Bitmask of the Permissions together with the Set it was computed from.
+     * NOTE: This is a single immutable Object, so it can be replaced atomically without Locking.
+     */
+    private record PermissionMask(Set<GrantedAuthority> source, int mask) { }
+
+    @Transient
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient PermissionMask permissionMask;
+
+    /**
+     * Gets the Permissions as a Bitmask (see {@link Permission#mask()}).
+     * The Mask is computed once and only recomputed if the Permissions are replaced.
+     * NOTE: The Permissions are only ever replaced as a whole (see {@link #setPermissions(Set)}),
+     *       they are never modified in place.
+     *
+     * @return The Bitmask of the Permissions.
+     */
+    @JsonIgnore
+    public int getPermissionMask() {
+        Set<GrantedAuthority> currentPermissions = this.permissions;
+        PermissionMask cached = this.permissionMask;
+        if (cached == null || cached.source() != currentPermissions) {
+            cached = new PermissionMask(currentPermissions, Permission.toMask(currentPermissions));
+            this.permissionMask = cached;
+        }
+        return cached.mask();
+    }
     //endregion
 
     //region equals, hashCode, toString
@@ -134,12 +168,33 @@ public abstract class Authenticable implements UserDetails, CredentialsContainer
             this.passwordHashed = true;
         }
     }
+
+    /**
+     * Sets a Password that was already hashed (e.g. after the Hash was written to the Database).
+     *
+     * @param passwordHash The hashed Password.
+     */
+    @JsonIgnore
+    public void setHashedPassword(String passwordHash) {
+        this.password = passwordHash;
+        this.passwordHashed = true;
+    }
     //endregion
 
     //region Setting Token
     public void setToken(UUID token) {
+        setToken(token, token != null ? LocalDateTime.now() : null);
+    }
+
+    /**
+     * Sets the Session this Authenticable was loaded with.
+     *
+     * @param token The Token of the Session.
+     * @param tokenCreationDate The Time the Session was created.
+     */
+    public void setToken(UUID token, LocalDateTime tokenCreationDate) {
         this.token = token;
-        this.tokenCreationDate = token != null ? LocalDateTime.now() : null;
+        this.tokenCreationDate = tokenCreationDate;
     }
     //endregion
 
@@ -188,7 +243,7 @@ public abstract class Authenticable implements UserDetails, CredentialsContainer
     public void eraseCredentials() {
         this.password = null;
         this.passwordHashed = false;
-        this.token = null;
+        // NOTE: The Token is kept, because it identifies the Session that is ended on Logout.
     }
     //endregion
 }
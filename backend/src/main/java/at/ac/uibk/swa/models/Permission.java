@@ -2,11 +2,84 @@ package at.ac.uibk.swa.models;
 
 import org.springframework.security.core.GrantedAuthority;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Set;
 
+/**
+ * The Permissions a User can have.
+ * <br/>
+ * Every Permission has a fixed Bit, so a Set of Permissions can be stored and checked as a Bitmask.
+ * NOTE: Masks are stored outside the Application (e.g. in signed Tokens),
+ *       so the Bit of an existing Permission must never change.
+ */
 public enum Permission implements GrantedAuthority {
-    USER,
-    ADMIN;
+    USER(0),
+    ADMIN(1);
+
+    private final int mask;
+
+    Permission(int bit) {
+        this.mask = 1 << bit;
+    }
+
+    /**
+     * Gets the Bitmask containing only this Permission.
+     *
+     * @return The Bit of this Permission.
+     */
+    public int mask() {
+        return this.mask;
+    }
+
+    //region Bitmask Conversions
+    private static final Permission[] VALUES = Permission.values();
+
+    /**
+     * Converts the given Permissions into a Bitmask.
+     *
+     * @param permissions The Permissions (Authorities that are not a {@link Permission} are ignored).
+     * @return The Bitmask of the Permissions.
+     */
+    public static int toMask(Collection<? extends GrantedAuthority> permissions) {
+        int mask = 0;
+        if (permissions == null)
+            return mask;
+        for (GrantedAuthority permission : permissions) {
+            if (permission instanceof Permission p)
+                mask |= p.mask;
+        }
+        return mask;
+    }
+
+    /**
+     * Converts the given Permissions into a Bitmask.
+     *
+     * @param permissions The Permissions.
+     * @return The Bitmask of the Permissions.
+     */
+    public static int toMask(Permission... permissions) {
+        int mask = 0;
+        for (Permission permission : permissions)
+            mask |= permission.mask;
+        return mask;
+    }
+
+    /**
+     * Converts a Bitmask back into a Set of Permissions.
+     *
+     * @param mask The Bitmask (unknown Bits are ignored).
+     * @return A new, mutable Set containing the Permissions of the Mask.
+     */
+    public static Set<GrantedAuthority> fromMask(int mask) {
+        Set<GrantedAuthority> permissions = new HashSet<>();
+        for (Permission permission : VALUES) {
+            if ((mask & permission.mask) != 0)
+                permissions.add(permission);
+        }
+        return permissions;
+    }
+    //endregion
 
     public static Set<Permission> defaultPermissions() {
         return Set.of(USER);
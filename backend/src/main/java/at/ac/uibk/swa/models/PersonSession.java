@@ -0,0 +1,79 @@
+package at.ac.uibk.swa.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A single Login of a {@link Person}, identified by its Token.
+ * <br/>
+ * Every Login inserts a new Session instead of overwriting a Token stored with the Person,
+ * so a Person can be logged in on multiple Devices at once (up to "swa.token.sessions.max-per-person").
+ */
+@Getter
+@Entity
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(
+        name = "person_session",
+        indexes = {
+                @Index(name = "idx_person_session_person", columnList = "person_id"),
+                // NOTE: Needed for finding expired Sessions (see SessionPurgeService).
+                @Index(name = "idx_person_session_creation_date", columnList = "creation_date")
+        }
+)
+public class PersonSession implements Persistable<UUID> {
+
+    @Id
+    @Column(name = "token", nullable = false)
+    private UUID token;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "person_id", nullable = false)
+    // NOTE: Sessions are deleted by the Database together with their Person.
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Person person;
+
+    // NOTE: A plain TIMESTAMP only stores whole Seconds on MySQL, so Logins within the same Second would tie.
+    @Column(name = "creation_date", nullable = false, columnDefinition = "TIMESTAMP(6)")
+    private LocalDateTime creationDate;
+
+    // NOTE: The Token is assigned before saving, so Spring Data cannot tell a new Session by its ID.
+    //       Without this, every Login would SELECT the Session before inserting it.
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private boolean isNew = true;
+
+    /**
+     * Creates a Session for the current Token of the given Person.
+     *
+     * @param person The Person that logged in (with its new Token already set).
+     */
+    public PersonSession(Person person) {
+        this.token = person.getToken();
+        this.person = person;
+        this.creationDate = person.getTokenCreationDate();
+    }
+
+    @Override
+    public UUID getId() {
+        return this.token;
+    }
+
+    @Override
+    public boolean isNew() {
+        return this.isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    private void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -0,0 +1,26 @@
+package at.ac.uibk.swa.models;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.io.Serializable;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Read-only View of a {@link Person} for List Endpoints.
+ * <br/>
+ * It is created directly from the selected Columns (see {@link at.ac.uibk.swa.repositories.PersonRepository}),
+ * so neither the Password Hash is loaded nor the Persistence Context has to track an Entity.
+ * The JSON Representation has the same Fields as the one of a {@link Person} (without the Token).
+ *
+ * @param personId The ID of the Person.
+ * @param username The Username of the Person.
+ * @param email The Email of the Person.
+ * @param permissions The Permissions of the Person.
+ */
+public record PersonSummary(
+        UUID personId,
+        String username,
+        String email,
+        Set<GrantedAuthority> permissions
+) implements Serializable { }
@@ -0,0 +1,34 @@
+package at.ac.uibk.swa.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * Records that all signed Tokens of a {@link Person} issued up until a certain Time are invalid.
+ * <br/>
+ * The Revocations are kept in memory by the {@link at.ac.uibk.swa.service.TokenService}
+ * and only stored here, so they survive a Restart.
+ */
+@Getter
+@Entity
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Table(
+        name = "token_revocation",
+        // NOTE: Needed for dropping the Revocations of expired Tokens.
+        indexes = @Index(name = "idx_token_revocation_revoked_at", columnList = "revoked_at")
+)
+public class TokenRevocation {
+
+    // NOTE: There is no Foreign Key to the Person on purpose,
+    //       the Tokens of a deleted Person have to stay revoked until they expire.
+    @Id
+    @Column(name = "person_id", nullable = false)
+    private UUID personId;
+
+    // NOTE: Stored in Epoch Milliseconds, so it can be compared exactly with the Issue Time of a Token.
+    @Column(name = "revoked_at", nullable = false)
+    private long revokedAt;
+}
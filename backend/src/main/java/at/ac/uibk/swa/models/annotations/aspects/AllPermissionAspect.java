@@ -11,13 +11,11 @@ import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Aspect
 @Component
@@ -25,35 +23,28 @@ public class AllPermissionAspect {
     @Autowired
     private HttpServletRequest request;
 
-    @Around("@annotation(at.ac.uibk.swa.models.annotations.AllPermission)")
-    public Object doSomething(ProceedingJoinPoint jp) throws Throwable {
-        // Get the Permissions that are all needed from the Attribute
-        Set<Permission> requiredPermission = Arrays.stream(
-                ((MethodSignature) jp.getSignature())
-                    .getMethod()
-                    .getAnnotation(AllPermission.class)
-                        .value()
-                ).collect(Collectors.toSet());
+    /**
+     * The Bitmask of the required Permissions of every annotated Method (computed on the first Call).
+     */
+    private final Map<Method, Integer> requiredMasks = new ConcurrentHashMap<>();
 
+    @Around("@annotation(allPermission)")
+    public Object doSomething(ProceedingJoinPoint jp, AllPermission allPermission) throws Throwable {
+        // Get the Permissions that are all needed from the Attribute
+        int requiredMask = requiredMasks.computeIfAbsent(
+                ((MethodSignature) jp.getSignature()).getMethod(),
+                method -> Permission.toMask(allPermission.value())
+        );
 
         // Try to get the currently logged-in user
-        Optional<Set<GrantedAuthority>> maybeUserPermissions =
-                Optional.ofNullable((UsernamePasswordAuthenticationToken) request.getUserPrincipal())
-                        .map(token -> token.getPrincipal() instanceof Authenticable a ? a : null)
-                        .map(Authenticable::getPermissions);
-
         // If no user is logged in => No Permissions => Fail
-        if (maybeUserPermissions.isEmpty())
+        if (!(request.getUserPrincipal() instanceof UsernamePasswordAuthenticationToken token)
+                || !(token.getPrincipal() instanceof Authenticable authenticable))
             throw new AccessDeniedException("");
 
-        // Get the logged-in user's Permissions and check if they meet the requirements
-        Set<GrantedAuthority> userPermissions = maybeUserPermissions.get();
-        for (Permission permission : requiredPermission) {
-            // Fail if any Permission is missing
-            if (!userPermissions.contains(permission)) {
-                throw new AccessDeniedException("");
-            }
-        }
+        // Fail if any Permission is missing
+        if ((authenticable.getPermissionMask() & requiredMask) != requiredMask)
+            throw new AccessDeniedException("");
 
         // Proceed if all Permissions were met
         return jp.proceed();
@@ -11,13 +11,11 @@ import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Aspect
 @Component
@@ -25,32 +23,26 @@ public class AnyPermissionAspect {
     @Autowired
     private HttpServletRequest request;
 
-    @Around("@annotation(at.ac.uibk.swa.models.annotations.AnyPermission)")
-    public Object doSomething(ProceedingJoinPoint jp) throws Throwable {
+    /**
+     * The Bitmask of the required Permissions of every annotated Method (computed on the first Call).
+     */
+    private final Map<Method, Integer> requiredMasks = new ConcurrentHashMap<>();
+
+    @Around("@annotation(anyPermission)")
+    public Object doSomething(ProceedingJoinPoint jp, AnyPermission anyPermission) throws Throwable {
         // Get the Permissions that are needed from the Attribute
-        Set<Permission> requiredPermission = Arrays.stream(
-                ((MethodSignature) jp.getSignature())
-                    .getMethod()
-                    .getAnnotation(AnyPermission.class)
-                        .value()
-                ).collect(Collectors.toSet());
+        int requiredMask = requiredMasks.computeIfAbsent(
+                ((MethodSignature) jp.getSignature()).getMethod(),
+                method -> Permission.toMask(anyPermission.value())
+        );
 
         // Try to get the currently logged-in user
-        Optional<Set<GrantedAuthority>> maybeUserPermissions =
-                Optional.ofNullable((UsernamePasswordAuthenticationToken) request.getUserPrincipal())
-                .map(token -> token.getPrincipal() instanceof Authenticable a ? a : null)
-                .map(Authenticable::getPermissions);
-
         // If no user is logged in => No Permissions => Fail
-        if (maybeUserPermissions.isPresent()) {
-            // Get the logged-in user's Permissions and check if they meet any requirement
-            Set<GrantedAuthority> userPermissions = maybeUserPermissions.get();
-            for (Permission permission : requiredPermission) {
+        if (request.getUserPrincipal() instanceof UsernamePasswordAuthenticationToken token
+                && token.getPrincipal() instanceof Authenticable authenticable
                 // Proceed if any Permissions were met
-                if (userPermissions.contains(permission)) {
-                    return jp.proceed();
-                }
-            }
+                && (authenticable.getPermissionMask() & requiredMask) != 0) {
+            return jp.proceed();
         }
 
         throw new AccessDeniedException("");
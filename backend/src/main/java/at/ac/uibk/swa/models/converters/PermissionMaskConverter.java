@@ -0,0 +1,31 @@
+package at.ac.uibk.swa.models.converters;
+
+import at.ac.uibk.swa.models.Permission;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Set;
+
+/**
+ * JPA-Converter storing a Set of Permissions as a single Integer Column.
+ * <br/>
+ * The Permissions are loaded together with the Row they belong to,
+ * instead of needing a separate Query for a Collection Table.
+ *
+ * @see Permission#toMask(java.util.Collection)
+ * @see Permission#fromMask(int)
+ */
+@Converter
+public class PermissionMaskConverter implements AttributeConverter<Set<GrantedAuthority>, Integer> {
+
+    @Override
+    public Integer convertToDatabaseColumn(Set<GrantedAuthority> permissions) {
+        return Permission.toMask(permissions);
+    }
+
+    @Override
+    public Set<GrantedAuthority> convertToEntityAttribute(Integer mask) {
+        return Permission.fromMask(mask == null ? 0 : mask);
+    }
+}
@@ -0,0 +1,22 @@
+package at.ac.uibk.swa.models.exceptions;
+
+import lombok.Getter;
+import org.springframework.security.core.AuthenticationException;
+
+import java.time.Duration;
+
+/**
+ * Thrown if a Client sent too many invalid Tokens and is not allowed to try again yet.
+ * <br/>
+ * This is answered with "429 Too Many Requests" and a "Retry-After"-Header.
+ */
+@Getter
+public class AuthenticationThrottledException extends AuthenticationException {
+
+    private final Duration retryAfter;
+
+    public AuthenticationThrottledException(String msg, Duration retryAfter) {
+        super(msg);
+        this.retryAfter = retryAfter;
+    }
+}
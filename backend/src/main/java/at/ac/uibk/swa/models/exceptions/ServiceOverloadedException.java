@@ -0,0 +1,21 @@
+package at.ac.uibk.swa.models.exceptions;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Thrown if a Request cannot be handled right now because a bounded Resource is saturated.
+ * <br/>
+ * This is answered with "503 Service Unavailable" and a "Retry-After"-Header.
+ */
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceOverloadedException(String msg, Duration retryAfter) {
+        super(msg);
+        this.retryAfter = retryAfter;
+    }
+}
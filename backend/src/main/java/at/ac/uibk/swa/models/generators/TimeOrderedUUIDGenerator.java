@@ -0,0 +1,24 @@
+package at.ac.uibk.swa.models.generators;
+
+import at.ac.uibk.swa.util.UUIDUtil;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/**
+ * Hibernate ID-Generator creating time-ordered (Version 7) UUIDs.
+ * <br/>
+ * Use it with <code>@GenericGenerator(name = TimeOrderedUUIDGenerator.NAME, strategy = TimeOrderedUUIDGenerator.STRATEGY)</code>
+ * and <code>@GeneratedValue(generator = TimeOrderedUUIDGenerator.NAME)</code>.
+ *
+ * @see UUIDUtil#randomTimeOrderedUUID()
+ */
+public class TimeOrderedUUIDGenerator implements IdentifierGenerator {
+
+    public static final String NAME = "time-ordered-uuid";
+    public static final String STRATEGY = "at.ac.uibk.swa.models.generators.TimeOrderedUUIDGenerator";
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return UUIDUtil.randomTimeOrderedUUID();
+    }
+}
@@ -0,0 +1,29 @@
+package at.ac.uibk.swa.models.rest_responses;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.io.Serializable;
+
+/**
+ * A Response Container for Operations affecting many Rows at once (e.g. deleting all Users of a Tenant).
+ */
+@Getter
+@SuperBuilder
+@NoArgsConstructor(access = AccessLevel.MODULE)
+public class BulkOperationResponse extends RestResponse implements Serializable {
+
+    @Override
+    @JsonInclude
+    public String getType() { return "BulkOperation"; }
+
+    private int affectedRows;
+
+    public BulkOperationResponse(int affectedRows) {
+        super(true);
+        this.affectedRows = affectedRows;
+    }
+}
@@ -11,6 +11,7 @@ import lombok.experimental.SuperBuilder;
 import org.springframework.security.core.GrantedAuthority;
 
 import java.io.Serializable;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 
@@ -42,7 +43,7 @@ public class LoginResponse extends TokenResponse implements Serializable {
         public LoginResponseBuilder<C, B> person(Person person) {
             this.personId = person.getPersonId();
             this.permissions = person.getPermissions();
-            this.token(person.getToken());
+            this.token(Objects.toString(person.getToken(), null));
             return this;
         }
     }
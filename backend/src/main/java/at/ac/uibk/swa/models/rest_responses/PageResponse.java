@@ -0,0 +1,38 @@
+package at.ac.uibk.swa.models.rest_responses;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A Response Container for sending one Page of a keyset-paginated List.
+ * The "nextCursor"-Field is passed to the same Endpoint to get the next Page,
+ * it is missing on the last Page.
+ */
+@Getter
+@SuperBuilder
+@NoArgsConstructor(access = AccessLevel.MODULE)
+public class PageResponse<T extends Serializable> extends ListResponse<T> implements Serializable {
+    @JsonInclude
+    @Override
+    public String getType() { return "Page"; }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
+    /**
+     * Indicate a successful fetch of a Page.
+     *
+     * @param items The Items of the Page.
+     * @param nextCursor The Cursor of the next Page (null if this is the last Page).
+     */
+    public PageResponse(List<T> items, String nextCursor) {
+        super(items);
+        this.nextCursor = nextCursor;
+    }
+}
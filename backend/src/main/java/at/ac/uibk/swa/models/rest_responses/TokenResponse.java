@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
 import java.io.Serializable;
+import java.util.Objects;
 import java.util.UUID;
 
 @Getter
@@ -19,9 +20,14 @@ public class TokenResponse extends RestResponse implements Serializable {
     @JsonInclude
     public String getType() { return "TokenExpired"; }
 
-    private UUID token;
+    // NOTE: Depending on "swa.token.mode" this is either a Session UUID or a signed Token.
+    private String token;
 
     public TokenResponse(boolean success, UUID token) {
+        this(success, Objects.toString(token, null));
+    }
+
+    public TokenResponse(boolean success, String token) {
         super(success);
         this.token = token;
     }
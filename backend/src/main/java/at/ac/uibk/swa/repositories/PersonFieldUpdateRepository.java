@@ -0,0 +1,27 @@
+package at.ac.uibk.swa.repositories;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Repository Fragment for updating single Columns of a Person without loading it first.
+ *
+ * @see PersonRepository
+ */
+public interface PersonFieldUpdateRepository {
+
+    /**
+     * Updates only the given Columns of a Person with a single UPDATE Statement.
+     * Parameters that are set to null are left unchanged.
+     *
+     * @param id The ID of the Person.
+     * @param username The new Username.
+     * @param email The new Email.
+     * @param permissions The new Permissions.
+     * @param passwordHash The new (already hashed) Password.
+     * @return The Number of updated Rows (0 if the Person does not exist or no Column was given).
+     */
+    int updateFields(UUID id, String username, String email, Set<GrantedAuthority> permissions, String passwordHash);
+}
@@ -0,0 +1,53 @@
+package at.ac.uibk.swa.repositories;
+
+import at.ac.uibk.swa.models.Person;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Implementation of the {@link PersonFieldUpdateRepository}-Fragment (found by Spring Data by its Name).
+ */
+public class PersonFieldUpdateRepositoryImpl implements PersonFieldUpdateRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int updateFields(UUID id, String username, String email, Set<GrantedAuthority> permissions, String passwordHash) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Person> update = builder.createCriteriaUpdate(Person.class);
+        Root<Person> person = update.from(Person.class);
+
+        boolean changed = false;
+        if (username != null) {
+            update.set(person.<String>get("username"), username);
+            changed = true;
+        }
+        if (email != null) {
+            update.set(person.<String>get("email"), email);
+            changed = true;
+        }
+        if (permissions != null) {
+            update.set(person.<Set<GrantedAuthority>>get("permissions"), permissions);
+            changed = true;
+        }
+        if (passwordHash != null) {
+            update.set(person.<String>get("password"), passwordHash);
+            changed = true;
+        }
+        if (!changed)
+            return 0;
+
+        update.where(builder.equal(person.get("id"), id));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
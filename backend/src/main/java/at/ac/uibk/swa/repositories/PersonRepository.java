@@ -1,60 +1,126 @@
 package at.ac.uibk.swa.repositories;
 
 import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.models.PersonSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface PersonRepository extends CrudRepository<Person, UUID> {
+public interface PersonRepository extends CrudRepository<Person, UUID>, PersonFieldUpdateRepository {
     @Override
     List<Person> findAll();
 
-    Optional<Person> findByUsernameAndToken(String username, UUID token);
-
     Optional<Person> findByUsername(String username);
 
-    @Transactional
-    default <S extends Person> S updateToken(S person) {
-        return updateToken(
-                person.getPersonId(),
-                person.getToken(),
-                person.getTokenCreationDate()
-        ) == 1 ? person : null;
-    }
+    boolean existsByUsername(String username);
+
+    @Query("select p.username from Person p where p.username in :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    /**
+     * Reads the Usernames of all Persons one after another (e.g. for filling the UsernameFilterService).
+     *
+     * @implNote The Stream must be consumed inside a Transaction and closed afterwards.
+     * @return A Stream of all Usernames.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("select p.username from Person p")
+    Stream<String> streamAllUsernames();
+
+    //region Projections
+    // NOTE: These Queries only select the Columns needed by the List Endpoints and create the Records directly,
+    //       so no Entities (and Password Hashes) are loaded into the Persistence Context.
+    String SUMMARY = "select new at.ac.uibk.swa.models.PersonSummary(p.id, p.username, p.email, p.permissions) from Person p";
+
+    @Query(SUMMARY)
+    List<PersonSummary> findAllSummaries();
+
+    /**
+     * Reads the Summaries of all Persons one after another instead of loading them into a List first.
+     * The Rows are fetched from the Database in Chunks of {@value #STREAM_FETCH_SIZE}.
+     *
+     * @implNote The Stream must be consumed inside a Transaction and closed afterwards.
+     * @return A Stream of the Summaries of all Persons.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(SUMMARY)
+    Stream<PersonSummary> streamAllSummaries();
+
+    String STREAM_FETCH_SIZE = "500";
+    //endregion
 
+    //region Keyset Pagination
+    @Query(SUMMARY + " order by p.username")
+    List<PersonSummary> findSummariesOrderedByUsername(Pageable pageable);
+
+    @Query(SUMMARY + " where p.username > :after order by p.username")
+    List<PersonSummary> findSummariesOrderedByUsernameAfter(@Param("after") String after, Pageable pageable);
+
+    @Query(SUMMARY + " order by p.id")
+    List<PersonSummary> findSummariesOrderedById(Pageable pageable);
+
+    @Query(SUMMARY + " where p.id > :after order by p.id")
+    List<PersonSummary> findSummariesOrderedByIdAfter(@Param("after") UUID after, Pageable pageable);
+    //endregion
+
+    //region Bulk Operations
+    @Query("select p.id from Person p where lower(p.email) like :pattern escape '!' order by p.id")
+    List<UUID> findIdsByEmailLike(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query("select p.id from Person p where lower(p.email) like :pattern escape '!' and p.id > :after order by p.id")
+    List<UUID> findIdsByEmailLikeAfter(@Param("pattern") String pattern, @Param("after") UUID after, Pageable pageable);
+
+    /**
+     * Replaces the Permissions of the given Persons, but only of those that currently have the given Permissions.
+     *
+     * @param ids The IDs of the Persons.
+     * @param oldPermissions The Permissions the Persons need to have currently.
+     * @param newPermissions The new Permissions.
+     * @return The Number of updated Rows.
+     */
     @Transactional
     @Modifying
-    @Query("update Person p set p.token = :token, p.tokenCreationDate = :tokenCreationDate where p.id = :id")
-    int updateToken(
-            @Param("id") UUID id,
-            @Param("token") UUID token,
-            @Param("tokenCreationDate") LocalDateTime tokenCreationDate
+    @Query("update Person p set p.permissions = :newPermissions where p.id in :ids and p.permissions = :oldPermissions")
+    int updatePermissions(
+            @Param("ids") Collection<UUID> ids,
+            @Param("oldPermissions") Set<GrantedAuthority> oldPermissions,
+            @Param("newPermissions") Set<GrantedAuthority> newPermissions
     );
 
     @Transactional
-    default <S extends Person> S updateUserDetails(S person) {
-        return updateUserDetails(
-                person.getPersonId(),
-                person.getUsername(),
-                person.getPermissions()
-        ) == 1 ? person : null;
-    }
+    @Modifying
+    @Query("delete from Person p where p.id in :ids")
+    int deleteByIds(@Param("ids") Collection<UUID> ids);
+    //endregion
 
+    /**
+     * Replaces the Password Hash of a Person, but only if it was not changed in the meantime.
+     *
+     * @param id The ID of the Person.
+     * @param oldHash The Hash the Person needs to have currently.
+     * @param newHash The new Hash.
+     * @return The Number of updated Rows (0 if the Hash was changed concurrently).
+     */
     @Transactional
     @Modifying
-    @Query("update Person p set p.username = :username, p.permissions = :permissions where p.id = :id")
-    int updateUserDetails(
+    @Query("update Person p set p.password = :newHash where p.id = :id and p.password = :oldHash")
+    int updatePasswordHash(
             @Param("id") UUID id,
-            @Param("username") String username,
-            @Param("permissions") Set<GrantedAuthority> permissions
+            @Param("oldHash") String oldHash,
+            @Param("newHash") String newHash
     );
-}
\ No newline at end of file
+}
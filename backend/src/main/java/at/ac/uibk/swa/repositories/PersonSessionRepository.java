@@ -0,0 +1,99 @@
+package at.ac.uibk.swa.repositories;
+
+import at.ac.uibk.swa.models.PersonSession;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface PersonSessionRepository extends CrudRepository<PersonSession, UUID> {
+
+    /**
+     * Finds a Session together with its Person in a single Query.
+     *
+     * @param username The Username the Token was sent with.
+     * @param token The Token of the Session.
+     * @return The Session if the Token belongs to the Person with the given Username, empty otherwise.
+     */
+    @Query("select s from PersonSession s join fetch s.person p where s.token = :token and p.username = :username")
+    Optional<PersonSession> findByUsernameAndToken(
+            @Param("username") String username,
+            @Param("token") UUID token
+    );
+
+    /**
+     * Gets the Tokens of all Sessions of a Person, the newest Session first.
+     *
+     * @implNote Sessions created at the same Time are ordered by their Token, which is time-ordered as well,
+     *           so the Session of the latest Login is never evicted in favor of an older one.
+     * @param personId The ID of the Person.
+     * @return The Tokens of the Person's Sessions.
+     */
+    @Query("select s.token from PersonSession s where s.person.id = :personId order by s.creationDate desc, s.token desc")
+    List<UUID> findTokensByPersonId(@Param("personId") UUID personId);
+
+    /**
+     * Gets the Tokens of Sessions that were created before the given Time, the oldest Session first.
+     *
+     * @param createdBefore Only Sessions created before this Time are returned.
+     * @param pageable The Number of Tokens to return.
+     * @return The Tokens of the Sessions.
+     */
+    @Query("select s.token from PersonSession s where s.creationDate < :createdBefore order by s.creationDate")
+    List<UUID> findTokensCreatedBefore(@Param("createdBefore") LocalDateTime createdBefore, Pageable pageable);
+
+    @Query("select count(s) from PersonSession s where s.creationDate < :createdBefore")
+    long countCreatedBefore(@Param("createdBefore") LocalDateTime createdBefore);
+
+    @Transactional
+    @Modifying
+    @Query("delete from PersonSession s where s.token = :token and s.person.id = :personId")
+    int deleteByPersonIdAndToken(
+            @Param("personId") UUID personId,
+            @Param("token") UUID token
+    );
+
+    @Transactional
+    @Modifying
+    @Query("delete from PersonSession s where s.token in :tokens")
+    int deleteByTokens(@Param("tokens") Collection<UUID> tokens);
+
+    @Transactional
+    @Modifying
+    @Query("delete from PersonSession s where s.person.id = :personId")
+    int deleteByPersonId(@Param("personId") UUID personId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from PersonSession s where s.person.id in :personIds")
+    int deleteByPersonIds(@Param("personIds") Collection<UUID> personIds);
+
+    /**
+     * Ends the oldest Sessions of a Person, so that at most the given Number of Sessions remains.
+     *
+     * @param personId The ID of the Person.
+     * @param maxSessions The maximum Number of Sessions (0 or less means unlimited).
+     * @return The Tokens of the ended Sessions.
+     */
+    @Transactional
+    default List<UUID> deleteOldestSessions(UUID personId, int maxSessions) {
+        if (maxSessions <= 0)
+            return List.of();
+
+        List<UUID> tokens = findTokensByPersonId(personId);
+        if (tokens.size() <= maxSessions)
+            return List.of();
+
+        List<UUID> evicted = List.copyOf(tokens.subList(maxSessions, tokens.size()));
+        deleteByTokens(evicted);
+        return evicted;
+    }
+}
@@ -0,0 +1,28 @@
+package at.ac.uibk.swa.repositories;
+
+import at.ac.uibk.swa.models.TokenRevocation;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface TokenRevocationRepository extends CrudRepository<TokenRevocation, UUID> {
+
+    /**
+     * Gets the Revocations that still revoke unexpired Tokens.
+     *
+     * @param revokedAfter Only Revocations after this Time (in Epoch Milliseconds) are returned.
+     * @return The Revocations.
+     */
+    @Query("select r from TokenRevocation r where r.revokedAt >= :revokedAfter")
+    List<TokenRevocation> findRevokedAfter(@Param("revokedAfter") long revokedAfter);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TokenRevocation r where r.revokedAt < :revokedBefore")
+    int deleteRevokedBefore(@Param("revokedBefore") long revokedBefore);
+}
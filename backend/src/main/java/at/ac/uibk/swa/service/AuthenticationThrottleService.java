@@ -0,0 +1,151 @@
+package at.ac.uibk.swa.service;
+
+import at.ac.uibk.swa.config.jwt_authentication.JwtToken;
+import at.ac.uibk.swa.models.exceptions.AuthenticationThrottledException;
+import at.ac.uibk.swa.util.cache.ExpiringCache;
+import at.ac.uibk.swa.util.cache.ExpiringCacheMetrics;
+import at.ac.uibk.swa.util.concurrent.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Service protecting the Database from Clients that keep sending invalid Tokens.
+ * <br/>
+ * Recently rejected (Username, Token)-Pairs are remembered for a short Time ("swa.token.throttle.rejected-ttl"),
+ * so replaying them is answered without a Database Lookup.
+ * Additionally, every rejected Token takes a Token from the Bucket of the Client's IP-Address.
+ * Once the Bucket is empty, Requests of that Address are answered with "429 Too Many Requests"
+ * before the Token is looked up at all.
+ * <br/>
+ * Only Tokens that have to be looked up are throttled: Valid Sessions cached by the {@link SessionCacheService}
+ * are still admitted, so Users sharing an Address with a misbehaving Client are not locked out.
+ * <br/>
+ * The Outcome of every Check is counted in "authentication.token.requests" (admitted, rejected or throttled).
+ *
+ * @see RateLimiter
+ */
+@Service
+public class AuthenticationThrottleService {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${swa.token.throttle.enabled:true}")
+    private boolean enabled;
+
+    @Value("${swa.token.throttle.rejected-ttl:30s}")
+    private Duration rejectedTimeToLive;
+
+    @Value("${swa.token.throttle.rejected-max-size:10000}")
+    private long rejectedMaxSize;
+
+    @Value("${swa.token.throttle.failure-burst:20}")
+    private int failureBurst;
+
+    @Value("${swa.token.throttle.failure-refill-interval:1s}")
+    private Duration failureRefillInterval;
+
+    @Value("${swa.token.throttle.max-sources:100000}")
+    private int maxSources;
+
+    private record RejectedToken(String username, UUID token) { }
+
+    private ExpiringCache<RejectedToken, Boolean> rejectedTokens;
+    private RateLimiter<String> failuresPerSource;
+
+    private Counter admittedCounter;
+    private Counter rejectedCounter;
+    private Counter throttledCounter;
+
+    @PostConstruct
+    private void setup() {
+        this.rejectedTokens = ExpiringCacheMetrics.monitor(
+                meterRegistry,
+                new ExpiringCache<>(rejectedMaxSize, rejectedTimeToLive),
+                "rejected_tokens"
+        );
+        this.failuresPerSource = new RateLimiter<>(failureBurst, failureRefillInterval, maxSources);
+
+        this.admittedCounter = counter("admitted");
+        this.rejectedCounter = counter("rejected");
+        this.throttledCounter = counter("throttled");
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("authentication.token.requests")
+                .description("Outcome of the Token Checks of authenticated Requests")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    //region Checks
+    /**
+     * Fails if the given Source sent too many invalid Tokens recently.
+     * Must only be called for Tokens that are not cached as a valid Session.
+     *
+     * @param source The IP-Address of the Client (null if unknown).
+     * @throws AuthenticationThrottledException If the Source has to wait before trying again.
+     */
+    public void checkThrottled(String source) throws AuthenticationThrottledException {
+        if (!enabled || source == null)
+            return;
+
+        Optional<Duration> retryAfter = failuresPerSource.getRetryAfter(source);
+        if (retryAfter.isPresent()) {
+            throttledCounter.increment();
+            throw new AuthenticationThrottledException("Too many invalid authentication tokens!", retryAfter.get());
+        }
+    }
+
+    /**
+     * Checks whether the given Token was rejected recently.
+     * If so, the Rejection is counted against the Source again.
+     *
+     * @param source The IP-Address of the Client (null if unknown).
+     * @param token The Token sent with the Request.
+     * @return true if the Token is known to be invalid, false if it needs to be looked up.
+     */
+    public boolean isRejected(String source, JwtToken token) {
+        if (!enabled || !rejectedTokens.contains(new RejectedToken(token.getUsername(), token.getToken())))
+            return false;
+
+        rejectedCounter.increment();
+        if (source != null)
+            failuresPerSource.tryAcquire(source);
+        return true;
+    }
+    //endregion
+
+    //region Outcomes
+    /**
+     * Records that the given Token could not be found.
+     *
+     * @param source The IP-Address of the Client (null if unknown).
+     * @param token The Token sent with the Request.
+     */
+    public void reject(String source, JwtToken token) {
+        rejectedCounter.increment();
+        if (!enabled)
+            return;
+
+        rejectedTokens.put(new RejectedToken(token.getUsername(), token.getToken()), Boolean.TRUE);
+        if (source != null)
+            failuresPerSource.tryAcquire(source);
+    }
+
+    /**
+     * Records that a Request was authenticated successfully.
+     */
+    public void admit() {
+        admittedCounter.increment();
+    }
+    //endregion
+}
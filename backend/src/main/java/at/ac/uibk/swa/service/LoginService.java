@@ -14,7 +14,28 @@ public class LoginService {
     @Autowired
     private PersonService personService;
 
+    @Autowired
+    private SessionCacheService sessionCache;
+
+    @Autowired
+    private TokenWriteBehindService tokenWriteBehind;
+
     public Optional<? extends Authenticable> login(JwtToken token) {
-        return personService.findByUsernameAndToken(token);
+        return login(token, () -> { });
+    }
+
+    /**
+     * Finds the Person the given Token belongs to.
+     *
+     * @param token The Token sent with the Request.
+     * @param beforeLookup Called only if the Token is not cached and has to be looked up (it may throw to abort the Lookup).
+     * @return The Person if the Token is valid, empty otherwise.
+     */
+    public Optional<? extends Authenticable> login(JwtToken token, Runnable beforeLookup) {
+        return sessionCache.get(token, () -> {
+            beforeLookup.run();
+            return tokenWriteBehind.findByUsernameAndToken(token)
+                    .or(() -> personService.findByUsernameAndToken(token));
+        });
     }
 }
@@ -0,0 +1,113 @@
+package at.ac.uibk.swa.service;
+
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.repositories.PersonRepository;
+import at.ac.uibk.swa.util.concurrent.PasswordHashingExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Upgrades Password Hashes that were created with a different BCrypt Strength than "swa.password.bcrypt-strength".
+ * <br/>
+ * The Raw Password is only known during a Login, so after a successful Login the Password is re-hashed in the Background
+ * on the {@link PasswordHashingExecutor}. The new Hash is only stored if the old Hash was not changed in the meantime
+ * (e.g. by the User changing their Password), so no Update is lost.
+ * <br/>
+ * This makes it possible to raise (or lower) the Cost of Hashing without forcing the Users to reset their Passwords.
+ */
+@Slf4j
+@Service
+public class PasswordRehashService {
+
+    private static final String RESULT_TAG = "result";
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private PersonCacheService personCache;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${swa.password.bcrypt-strength:10}")
+    private int targetStrength;
+
+    @Value("${swa.password.rehash.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Checks whether the given Hash was created with a different Strength than the configured one.
+     *
+     * @param hash The stored BCrypt Hash (e.g. "$2a$10$...").
+     * @return true if the Hash should be replaced, false otherwise (also if it is not a BCrypt Hash).
+     */
+    public boolean needsRehash(String hash) {
+        int strength = bcryptStrength(hash);
+        return enabled && strength > 0 && strength != targetStrength;
+    }
+
+    /**
+     * Parses the Cost Factor of a BCrypt Hash, which has the Form "$2[abxy]$&lt;Cost&gt;$&lt;Salt and Hash&gt;".
+     *
+     * @param hash The BCrypt Hash.
+     * @return The Cost Factor, or -1 if the Hash is not a BCrypt Hash.
+     */
+    static int bcryptStrength(String hash) {
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(1) != '2' || hash.charAt(3) != '$' || hash.charAt(6) != '$')
+            return -1;
+        char tens = hash.charAt(4);
+        char ones = hash.charAt(5);
+        if (tens < '0' || tens > '9' || ones < '0' || ones > '9')
+            return -1;
+        return (tens - '0') * 10 + (ones - '0');
+    }
+
+    /**
+     * Re-hashes the Password of the given Person in the Background if its Hash is stale.
+     *
+     * @param person The Person that just logged in successfully.
+     * @param rawPassword The Password the Person logged in with.
+     */
+    public void rehashIfNeeded(Person person, String rawPassword) {
+        String oldHash = person.getPassword();
+        if (!needsRehash(oldHash))
+            return;
+
+        UUID personId = person.getPersonId();
+        boolean submitted = passwordHashingExecutor.trySubmit(() -> rehash(personId, oldHash, rawPassword));
+        if (!submitted) {
+            // The Hash is upgraded on one of the next Logins instead.
+            countResult("skipped");
+        }
+    }
+
+    private void rehash(UUID personId, String oldHash, String rawPassword) {
+        try {
+            String newHash = passwordEncoder.encode(rawPassword);
+            boolean updated = personRepository.updatePasswordHash(personId, oldHash, newHash) == 1;
+            if (updated)
+                personCache.invalidate(personId);
+            countResult(updated ? "updated" : "conflict");
+        } catch (Exception e) {
+            log.warn("Could not re-hash Password of Person {}", personId, e);
+            countResult("failed");
+        }
+    }
+
+    private void countResult(String result) {
+        meterRegistry.counter("password.rehash", RESULT_TAG, result).increment();
+    }
+}
@@ -0,0 +1,353 @@
+package at.ac.uibk.swa.service;
+
+import at.ac.uibk.swa.models.Permission;
+import at.ac.uibk.swa.models.exceptions.ServiceOverloadedException;
+import at.ac.uibk.swa.repositories.PersonRepository;
+import at.ac.uibk.swa.repositories.PersonSessionRepository;
+import at.ac.uibk.swa.util.UUIDUtil;
+import at.ac.uibk.swa.util.concurrent.PasswordHashingExecutor;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Service for creating, updating and deleting many Persons at once (e.g. when onboarding or removing a Customer).
+ * <br/>
+ * Instead of hashing, inserting and committing every Person on its own, the Passwords are hashed in parallel
+ * on a separate Pool ("bulkPasswordHashingExecutor") and the Persons are inserted with JDBC Batches,
+ * committing every "swa.persons.bulk.batch-size" Rows.
+ * Rows that cannot be created (invalid or duplicate Usernames) are reported per Row instead of failing the whole Request.
+ * <br/>
+ * Updates and Deletes are set-based ("WHERE id IN (...)") and chunked the same Way, so Locks are only held briefly.
+ */
+@Service
+public class PersonBulkService {
+
+    private static final String INSERT_PERSON_SQL =
+            "INSERT INTO person (person_id, username, email, password, permissions) VALUES (?, ?, ?, ?, ?)";
+
+    /**
+     * A Person to create.
+     *
+     * @param username The Username of the new Person.
+     * @param email The Email of the new Person.
+     * @param password The unhashed Password of the new Person.
+     * @param permissions The Permissions of the new Person (the default Permissions if missing).
+     */
+    public record NewPerson(String username, String email, String password, Set<Permission> permissions) { }
+
+    /**
+     * The Outcome of creating a single Person.
+     */
+    public enum CreationStatus {
+        CREATED,
+        DUPLICATE,
+        INVALID
+    }
+
+    /**
+     * The Result of creating a single Person.
+     *
+     * @param username The Username of the Person.
+     * @param status Whether the Person was created.
+     * @param personId The ID of the created Person (null if it was not created).
+     */
+    public record CreationResult(String username, CreationStatus status, UUID personId) implements Serializable { }
+
+    private record Row(int index, UUID id, NewPerson person, String passwordHash) { }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private PersonSessionRepository sessionRepository;
+
+    @Autowired
+    private SessionCacheService sessionCache;
+
+    @Autowired
+    private PersonCacheService personCache;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private TokenWriteBehindService tokenWriteBehind;
+
+    @Autowired
+    private UsernameFilterService usernameFilter;
+
+    @Autowired
+    private PersonSearchService personSearch;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    @Qualifier("bulkPasswordHashingExecutor")
+    private PasswordHashingExecutor bulkPasswordHashingExecutor;
+
+    @Value("${swa.persons.bulk.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${swa.uuid.jdbc-type:NVARCHAR}")
+    private String uuidJdbcType;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    private void setup() {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    //region Create
+    /**
+     * Creates all given Persons that have a valid and unused Username.
+     *
+     * @param newPersons The Persons to create.
+     * @return The Result for every Person (in the same Order).
+     * @throws ServiceOverloadedException if the Pool rejected a Hashing Task (e.g. because it is shutting down)
+     */
+    public List<CreationResult> createAll(List<NewPerson> newPersons) throws ServiceOverloadedException {
+        CreationResult[] results = new CreationResult[newPersons.size()];
+
+        // Reject invalid Rows and Usernames that occur more than once in the Request.
+        Set<String> usernames = new HashSet<>();
+        List<Integer> candidates = new ArrayList<>(newPersons.size());
+        for (int i = 0; i < newPersons.size(); i++) {
+            NewPerson newPerson = newPersons.get(i);
+            if (!isValid(newPerson))
+                results[i] = new CreationResult(newPerson != null ? newPerson.username() : null, CreationStatus.INVALID, null);
+            else if (!usernames.add(newPerson.username()))
+                results[i] = new CreationResult(newPerson.username(), CreationStatus.DUPLICATE, null);
+            else
+                candidates.add(i);
+        }
+
+        // Reject Usernames that are already taken, so no Time is wasted on hashing their Passwords.
+        // Only Usernames that the UsernameFilterService cannot rule out need to be looked up.
+        Set<String> existing = findExistingUsernames(candidates.stream()
+                .map(i -> newPersons.get(i).username())
+                .filter(usernameFilter::mightBeTaken)
+                .toList());
+        candidates.removeIf(i -> {
+            String username = newPersons.get(i).username();
+            if (!existing.contains(username))
+                return false;
+            results[i] = new CreationResult(username, CreationStatus.DUPLICATE, null);
+            return true;
+        });
+
+        String[] passwordHashes = new String[newPersons.size()];
+        bulkPasswordHashingExecutor.forEach(candidates, i -> passwordHashes[i] = passwordEncoder.encode(newPersons.get(i).password()));
+
+        List<Row> batch = new ArrayList<>(Math.min(batchSize, candidates.size()));
+        for (int i : candidates) {
+            batch.add(new Row(i, UUIDUtil.randomTimeOrderedUUID(), newPersons.get(i), passwordHashes[i]));
+            if (batch.size() >= batchSize) {
+                writeBatch(batch, results);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty())
+            writeBatch(batch, results);
+
+        return Arrays.asList(results);
+    }
+
+    private static boolean isValid(NewPerson newPerson) {
+        return newPerson != null
+                && newPerson.username() != null && !newPerson.username().isBlank()
+                && newPerson.email() != null && !newPerson.email().isBlank()
+                && newPerson.password() != null && !newPerson.password().isEmpty();
+    }
+
+    private Set<String> findExistingUsernames(List<String> usernames) {
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < usernames.size(); from += batchSize)
+            existing.addAll(personRepository.findExistingUsernames(usernames.subList(from, Math.min(from + batchSize, usernames.size()))));
+        return existing;
+    }
+
+    private void writeBatch(List<Row> batch, CreationResult[] results) {
+        try {
+            insertPersons(batch);
+            for (Row row : batch) {
+                results[row.index()] = new CreationResult(row.person().username(), CreationStatus.CREATED, row.id());
+                usernameFilter.add(row.person().username());
+                personSearch.put(row.id(), row.person().username(), row.person().email());
+            }
+        } catch (DataIntegrityViolationException e) {
+            // NOTE: A Username was taken in the meantime, which fails the whole Batch.
+            //       Insert the Persons one by one instead and report the ones whose Username is taken.
+            for (Row row : batch) {
+                try {
+                    insertPersons(List.of(row));
+                    results[row.index()] = new CreationResult(row.person().username(), CreationStatus.CREATED, row.id());
+                    usernameFilter.add(row.person().username());
+                    personSearch.put(row.id(), row.person().username(), row.person().email());
+                } catch (DataIntegrityViolationException ignored) {
+                    results[row.index()] = new CreationResult(row.person().username(), CreationStatus.DUPLICATE, null);
+                }
+            }
+        }
+    }
+
+    private void insertPersons(List<Row> rows) {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_PERSON_SQL, rows, rows.size(), (statement, row) -> {
+                    Set<Permission> permissions = Optional.ofNullable(row.person().permissions())
+                            .orElseGet(Permission::defaultPermissions);
+                    UUIDUtil.bindUUID(statement, 1, row.id(), uuidJdbcType);
+                    statement.setString(2, row.person().username());
+                    statement.setString(3, row.person().email());
+                    statement.setString(4, row.passwordHash());
+                    statement.setInt(5, Permission.toMask(permissions));
+                })
+        );
+    }
+    //endregion
+
+    //region Update/Delete
+    /**
+     * Selects the Persons of a Bulk Operation, either by their IDs or by the Domain of their Email (e.g. "example.com").
+     *
+     * @param personIds The IDs of the Persons.
+     * @param emailDomain The Domain of the Persons' Emails.
+     */
+    public record PersonFilter(List<UUID> personIds, String emailDomain) {
+        /**
+         * Checks that exactly one of the Criteria is given.
+         *
+         * @return true if the Filter can be used, false otherwise.
+         */
+        public boolean isValid() {
+            boolean byIds = personIds != null && !personIds.isEmpty();
+            boolean byDomain = emailDomain != null && !emailDomain.isBlank();
+            return byIds != byDomain;
+        }
+    }
+
+    /**
+     * Grants and revokes Permissions of all Persons matching the Filter.
+     * The Persons are updated in Chunks of "swa.persons.bulk.batch-size", each in its own short Transaction.
+     *
+     * @param filter The Persons to update (must be valid).
+     * @param granted The Permissions to grant (may be null).
+     * @param revoked The Permissions to revoke (may be null, wins over granted Permissions).
+     * @return The Number of updated Persons.
+     */
+    public int updatePermissions(PersonFilter filter, Set<Permission> granted, Set<Permission> revoked) {
+        int grantedMask = granted != null ? Permission.toMask(granted) : 0;
+        int revokedMask = revoked != null ? Permission.toMask(revoked) : 0;
+
+        // NOTE: The Permissions are stored as a Bitmask, so there are only a few possible Values.
+        //       Every Value that changes is updated with a single Statement per Chunk.
+        int allMask = Permission.toMask(Permission.values());
+        Map<Integer, Integer> changes = new LinkedHashMap<>();
+        for (int mask = 0; mask <= allMask; mask++) {
+            int updated = (mask | grantedMask) & ~revokedMask;
+            if ((mask & ~allMask) == 0 && updated != mask)
+                changes.put(mask, updated);
+        }
+        if (changes.isEmpty())
+            return 0;
+
+        int[] affected = {0};
+        forEachChunk(filter, ids -> {
+            Integer updated = transactionTemplate.execute(status -> changes.entrySet().stream()
+                    .mapToInt(change -> personRepository.updatePermissions(
+                            ids, Permission.fromMask(change.getKey()), Permission.fromMask(change.getValue())
+                    ))
+                    .sum()
+            );
+            affected[0] += updated != null ? updated : 0;
+            invalidate(ids);
+        });
+        return affected[0];
+    }
+
+    /**
+     * Deletes all Persons matching the Filter together with their Sessions (hard delete).
+     * The Persons are deleted in Chunks of "swa.persons.bulk.batch-size", each in its own short Transaction.
+     *
+     * @param filter The Persons to delete (must be valid).
+     * @return The Number of deleted Persons.
+     */
+    public int deleteAll(PersonFilter filter) {
+        int[] affected = {0};
+        forEachChunk(filter, ids -> {
+            Integer deleted = transactionTemplate.execute(status -> {
+                sessionRepository.deleteByPersonIds(ids);
+                return personRepository.deleteByIds(ids);
+            });
+            affected[0] += deleted != null ? deleted : 0;
+            invalidate(ids);
+            tokenWriteBehind.discardPersons(ids);
+            usernameFilter.markStale(deleted != null ? deleted : 0);
+            personSearch.removeAll(ids);
+        });
+        return affected[0];
+    }
+
+    /**
+     * Passes the IDs of the Persons matching the Filter to the given Action in Chunks.
+     *
+     * @implNote The Persons of an Email Domain are selected with a Keyset (after the last ID of the previous Chunk),
+     *           so Chunks stay correct while the Action updates or deletes the Persons.
+     */
+    private void forEachChunk(PersonFilter filter, Consumer<List<UUID>> action) {
+        if (!filter.isValid())
+            throw new IllegalArgumentException("Either the IDs or the Email Domain of the Persons must be given!");
+
+        if (filter.personIds() != null && !filter.personIds().isEmpty()) {
+            List<UUID> ids = filter.personIds().stream().filter(Objects::nonNull).distinct().toList();
+            for (int from = 0; from < ids.size(); from += batchSize)
+                action.accept(ids.subList(from, Math.min(from + batchSize, ids.size())));
+            return;
+        }
+
+        String pattern = "%@" + escapeLike(filter.emailDomain().trim().toLowerCase(Locale.ROOT));
+        Pageable chunk = PageRequest.of(0, batchSize);
+        List<UUID> ids = personRepository.findIdsByEmailLike(pattern, chunk);
+        while (!ids.isEmpty()) {
+            action.accept(ids);
+            if (ids.size() < batchSize)
+                return;
+            ids = personRepository.findIdsByEmailLikeAfter(pattern, ids.get(ids.size() - 1), chunk);
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    /**
+     * Drops the cached Principals of the changed Persons, so their next Request sees the Change.
+     */
+    private void invalidate(List<UUID> personIds) {
+        personCache.invalidateAll(personIds);
+        sessionCache.invalidatePersons(personIds);
+        personIds.forEach(tokenService::revokeTokens);
+    }
+    //endregion
+}
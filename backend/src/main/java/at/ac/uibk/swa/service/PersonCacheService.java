@@ -0,0 +1,159 @@
+package at.ac.uibk.swa.service;
+
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.util.cache.ExpiringCache;
+import at.ac.uibk.swa.util.cache.ExpiringCacheMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-Through Cache for looking up {@link Person}s by their ID or Username without querying the Database.
+ * <br/>
+ * The Cache has two Regions:
+ * "persons_by_id" maps the ID to the Person (including its Permissions, which are stored in the same Row),
+ * "persons_by_username" only maps the Username to the ID, so every Person is stored (and invalidated) once.
+ * A Username whose Person was renamed in the meantime no longer matches the cached Person and is loaded again.
+ * <br/>
+ * Both Regions hold at most "swa.persons.cache.max-size" Entries for "swa.persons.cache.time-to-live",
+ * see {@link ExpiringCache} for the Eviction Policy.
+ * The {@link PersonService}, {@link PersonBulkService} and {@link PasswordRehashService} invalidate a Person
+ * whenever they change it (including through the Modifying Queries of the PersonRepository).
+ * <br/>
+ * Publishes the generic Cache Metrics of both Regions ("cache.gets", ...) and their Hit Ratio ("persons.cache.hit_ratio").
+ */
+@Service
+public class PersonCacheService {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${swa.persons.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${swa.persons.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${swa.persons.cache.time-to-live:5m}")
+    private Duration timeToLive;
+
+    private ExpiringCache<UUID, Person> byId;
+    private ExpiringCache<String, UUID> byUsername;
+
+    /**
+     * Counts the Invalidations so that Lookups which raced with an Invalidation do not re-insert a stale Person.
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @PostConstruct
+    private void createCaches() {
+        this.byId = monitor(new ExpiringCache<>(maxSize, timeToLive), "persons_by_id");
+        this.byUsername = monitor(new ExpiringCache<>(maxSize, timeToLive), "persons_by_username");
+    }
+
+    private <K, V> ExpiringCache<K, V> monitor(ExpiringCache<K, V> cache, String region) {
+        Gauge.builder("persons.cache.hit_ratio", cache, PersonCacheService::hitRatio)
+                .description("Fraction of Lookups answered without querying the Database")
+                .tag("region", region)
+                .register(meterRegistry);
+        return ExpiringCacheMetrics.monitor(meterRegistry, cache, region);
+    }
+
+    private static double hitRatio(ExpiringCache<?, ?> cache) {
+        long hits = cache.hitCount();
+        long lookups = hits + cache.missCount();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    //region Lookup
+    /**
+     * Finds the Person with the given ID, loading it with the given Function if it is not cached yet.
+     *
+     * @param personId The ID of the Person.
+     * @param loader The Function for loading the Person from the Database.
+     * @return A private Copy of the Person if it exists, empty otherwise.
+     */
+    public Optional<Person> findById(UUID personId, Supplier<Optional<Person>> loader) {
+        if (!enabled || personId == null)
+            return loader.get();
+
+        Optional<Person> cached = byId.get(personId);
+        if (cached.isPresent())
+            return cached.map(SessionCacheService::copy);
+
+        return load(loader);
+    }
+
+    /**
+     * Finds the Person with the given Username, loading it with the given Function if it is not cached yet.
+     *
+     * @param username The Username of the Person.
+     * @param loader The Function for loading the Person from the Database.
+     * @return A private Copy of the Person if it exists, empty otherwise.
+     */
+    public Optional<Person> findByUsername(String username, Supplier<Optional<Person>> loader) {
+        if (!enabled || username == null)
+            return loader.get();
+
+        Optional<Person> cached = byUsername.get(username)
+                .flatMap(byId::get)
+                .filter(person -> Objects.equals(person.getUsername(), username));
+        if (cached.isPresent())
+            return cached.map(SessionCacheService::copy);
+
+        return load(loader);
+    }
+
+    private Optional<Person> load(Supplier<Optional<Person>> loader) {
+        long invalidationsBeforeLoad = invalidations.get();
+        Optional<Person> maybePerson = loader.get();
+        maybePerson.ifPresent(person -> put(person, invalidationsBeforeLoad));
+        return maybePerson;
+    }
+
+    private void put(Person person, long invalidationsBeforeLoad) {
+        Person copy = SessionCacheService.copy(person);
+        byId.put(copy.getPersonId(), copy);
+        byUsername.put(copy.getUsername(), copy.getPersonId());
+
+        // NOTE: If an Invalidation happened while the Person was loaded, the loaded Person might already be stale.
+        //       Checking after inserting ensures that either this Thread or the Invalidation removes the Entry.
+        if (invalidations.get() != invalidationsBeforeLoad)
+            byId.invalidate(copy.getPersonId(), copy);
+    }
+    //endregion
+
+    //region Invalidation
+    /**
+     * Removes the given Person from the Cache.
+     *
+     * @param personId The ID of the Person that changed.
+     */
+    public void invalidate(UUID personId) {
+        invalidations.incrementAndGet();
+        if (personId != null)
+            byId.invalidate(personId);
+    }
+
+    /**
+     * Removes the given Persons from the Cache.
+     *
+     * @param personIds The IDs of the Persons that changed.
+     */
+    public void invalidateAll(Collection<UUID> personIds) {
+        invalidations.incrementAndGet();
+        personIds.forEach(byId::invalidate);
+    }
+    //endregion
+}
@@ -0,0 +1,141 @@
+package at.ac.uibk.swa.service;
+
+import at.ac.uibk.swa.models.PersonSummary;
+import at.ac.uibk.swa.repositories.PersonRepository;
+import at.ac.uibk.swa.util.concurrent.PrefixIndex;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Service for finding Persons by the Beginning of their Username or Email (e.g. for a Type-Ahead Search in the Admin UI).
+ * <br/>
+ * All Usernames and Emails are kept in a {@link PrefixIndex}, which is filled at Startup
+ * and updated whenever a Person is created, renamed or deleted (by the {@link PersonService} and {@link PersonBulkService}),
+ * so Searches never query the Database.
+ */
+@Slf4j
+@Service
+public class PersonSearchService {
+
+    /**
+     * A Person found by a Search.
+     *
+     * @param personId The ID of the Person.
+     * @param username The Username of the Person.
+     * @param email The Email of the Person.
+     */
+    public record PersonMatch(UUID personId, String username, String email) implements Serializable { }
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${swa.persons.search.enabled:true}")
+    private boolean enabled;
+
+    @Value("${swa.persons.search.max-results:50}")
+    private int maxResults;
+
+    private final PrefixIndex<UUID, PersonMatch> index = new PrefixIndex<>();
+
+    @PostConstruct
+    private void setup() {
+        if (enabled) {
+            try {
+                fill();
+            } catch (Exception e) {
+                log.warn("Could not build the Person Search Index", e);
+            }
+        }
+    }
+
+    //region Search
+    /**
+     * Finds the Persons whose Username or Email starts with the given Prefix (ignoring Case).
+     *
+     * @param prefix The Beginning of the Username or Email.
+     * @param limit The maximum Number of Persons to return (at most "swa.persons.search.max-results").
+     * @return The matching Persons, ordered by the matching Username or Email.
+     */
+    public List<PersonMatch> search(String prefix, int limit) {
+        if (!enabled || prefix == null || prefix.isBlank())
+            return List.of();
+
+        return index.search(prefix.trim(), Math.min(limit, maxResults));
+    }
+    //endregion
+
+    //region Maintenance
+    /**
+     * Adds a created Person or replaces the Username and Email of an indexed Person.
+     *
+     * @param personId The ID of the Person.
+     * @param username The current Username.
+     * @param email The current Email.
+     */
+    public void put(UUID personId, String username, String email) {
+        if (enabled && personId != null)
+            index.put(personId, new PersonMatch(personId, username, email), username, email);
+    }
+
+    /**
+     * Changes the Username and/or Email of an indexed Person.
+     *
+     * @param personId The ID of the Person.
+     * @param username The new Username (null if unchanged).
+     * @param email The new Email (null if unchanged).
+     */
+    public void update(UUID personId, String username, String email) {
+        if (!enabled || (username == null && email == null))
+            return;
+
+        // NOTE: The Change is merged while the Person is locked, so concurrent Changes of the Username and Email are both kept.
+        index.update(
+                personId,
+                previous -> new PersonMatch(
+                        personId,
+                        username != null ? username : previous.username(),
+                        email != null ? email : previous.email()
+                ),
+                match -> new String[] { match.username(), match.email() }
+        );
+    }
+
+    public void remove(UUID personId) {
+        if (enabled)
+            index.remove(personId);
+    }
+
+    public void removeAll(Collection<UUID> personIds) {
+        if (enabled)
+            personIds.forEach(index::remove);
+    }
+
+    /**
+     * Fills the Index with all Persons stored in the Database.
+     */
+    private void fill() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<PersonSummary> persons = personRepository.streamAllSummaries()) {
+                persons.forEach(person -> put(person.personId(), person.username(), person.email()));
+            }
+        });
+        log.debug("Indexed {} Persons for Searching", index.size());
+    }
+    //endregion
+}
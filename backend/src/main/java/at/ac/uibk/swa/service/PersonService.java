@@ -4,17 +4,32 @@ import at.ac.uibk.swa.config.jwt_authentication.AuthContext;
 import at.ac.uibk.swa.config.jwt_authentication.JwtToken;
 import at.ac.uibk.swa.models.Permission;
 import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.models.PersonSession;
+import at.ac.uibk.swa.models.PersonSummary;
+import at.ac.uibk.swa.models.exceptions.ServiceOverloadedException;
 import at.ac.uibk.swa.repositories.PersonRepository;
+import at.ac.uibk.swa.repositories.PersonSessionRepository;
+import at.ac.uibk.swa.util.ConversionUtil;
+import at.ac.uibk.swa.util.CursorUtil;
+import at.ac.uibk.swa.util.UUIDUtil;
+import at.ac.uibk.swa.util.concurrent.PasswordHashingExecutor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -23,9 +38,42 @@ public class PersonService {
     @Autowired
     private PersonRepository personRepository;
 
+    @Autowired
+    private PersonSessionRepository sessionRepository;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private PasswordRehashService passwordRehashService;
+
+    @Autowired
+    private SessionCacheService sessionCache;
+
+    @Autowired
+    private PersonCacheService personCache;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private TokenWriteBehindService tokenWriteBehind;
+
+    @Autowired
+    private UsernameFilterService usernameFilter;
+
+    @Autowired
+    private PersonSearchService personSearch;
+
+    @Value("${swa.token.sessions.max-per-person:5}")
+    private int maxSessionsPerPerson;
+
+    @Value("${swa.persons.page.max-size:500}")
+    private int maxPageSize;
+
     /**
      * Gets a list of all persons in the repository
      *
@@ -35,6 +83,96 @@ public class PersonService {
         return personRepository.findAll();
     }
 
+    /**
+     * Gets the Summaries of all persons in the repository (without loading the Entities).
+     *
+     * @return list of the Summaries of all persons
+     */
+    public List<PersonSummary> getPersonSummaries() {
+        return personRepository.findAllSummaries();
+    }
+
+    /**
+     * Passes the Summaries of all persons in the repository to the given Action one after another.
+     * The Summaries are not managed by the Persistence Context,
+     * so the Memory used does not grow with the Number of Persons.
+     *
+     * @param action The Action to perform for each Summary.
+     */
+    @Transactional(readOnly = true)
+    public void forEachPersonSummary(Consumer<PersonSummary> action) {
+        try (Stream<PersonSummary> persons = personRepository.streamAllSummaries()) {
+            persons.forEach(action);
+        }
+    }
+
+    //region Keyset Pagination
+    /**
+     * The Orderings in which Persons can be paged through.
+     */
+    public enum PersonOrder {
+        USERNAME,
+        ID
+    }
+
+    /**
+     * A single Page of Persons.
+     *
+     * @param persons The Summaries of the Persons on the Page.
+     * @param nextCursor The Cursor of the next Page (null if this is the last Page).
+     */
+    public record PersonPage(List<PersonSummary> persons, String nextCursor) { }
+
+    /**
+     * Gets the Page of Persons following the given Cursor.
+     * Every Page is found using the Index of the Ordering, so later Pages are as cheap as the first one.
+     *
+     * @param order The Ordering of the Persons.
+     * @param cursor The Cursor returned with the previous Page (null or empty for the first Page).
+     * @param limit The maximum Number of Persons on the Page (at most "swa.persons.page.max-size").
+     * @return The Page, or empty if the Cursor is invalid for the Ordering.
+     */
+    public Optional<PersonPage> getPersonsPage(PersonOrder order, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        // NOTE: Fetch one more Person to know whether there is a next Page.
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+
+        List<PersonSummary> persons;
+        if (cursor == null || cursor.isEmpty()) {
+            persons = switch (order) {
+                case USERNAME -> personRepository.findSummariesOrderedByUsername(pageable);
+                case ID -> personRepository.findSummariesOrderedById(pageable);
+            };
+        } else {
+            Optional<String> after = CursorUtil.tryDecode(order.name(), cursor);
+            if (after.isEmpty())
+                return Optional.empty();
+
+            switch (order) {
+                case USERNAME -> persons = personRepository.findSummariesOrderedByUsernameAfter(after.get(), pageable);
+                case ID -> {
+                    Optional<UUID> afterId = ConversionUtil.tryConvertUUIDOptional(after.get());
+                    if (afterId.isEmpty())
+                        return Optional.empty();
+                    persons = personRepository.findSummariesOrderedByIdAfter(afterId.get(), pageable);
+                }
+                default -> throw new IllegalArgumentException("Unknown Ordering: " + order);
+            }
+        }
+
+        if (persons.size() <= pageSize)
+            return Optional.of(new PersonPage(persons, null));
+
+        persons = persons.subList(0, pageSize);
+        PersonSummary last = persons.get(pageSize - 1);
+        String key = switch (order) {
+            case USERNAME -> last.username();
+            case ID -> last.personId().toString();
+        };
+        return Optional.of(new PersonPage(persons, CursorUtil.encode(order.name(), key)));
+    }
+    //endregion
+
     //region Login/Logout
     /**
      * Login via username and password
@@ -42,30 +180,44 @@ public class PersonService {
      * @param username username of the person to be logged in
      * @param password password of the person to be logged in
      * @return person if successfully logged in, nothing otherwise
+     * @throws ServiceOverloadedException if too many Passwords are being checked at the same time
      */
-    public Optional<Person> login(String username, String password) {
-        Optional<Person> maybePerson = personRepository.findByUsername(username);
+    public Optional<Person> login(String username, String password) throws ServiceOverloadedException {
+        Optional<Person> maybePerson = personCache.findByUsername(username, () -> personRepository.findByUsername(username));
         if(maybePerson.isEmpty())
             return Optional.empty();
 
         Person person = maybePerson.get();
-        if(!passwordEncoder.matches(password, person.getPassword()))
+        // NOTE: Checking the Password is CPU-heavy, so it is done on the Password Hashing Pool.
+        if(!passwordHashingExecutor.execute(() -> passwordEncoder.matches(password, person.getPassword())))
             return Optional.empty();
 
-        person.setToken(UUID.randomUUID());
+        // Upgrade Hashes with an outdated Strength in the Background.
+        passwordRehashService.rehashIfNeeded(person, password);
+
+        // NOTE: Signed Tokens are self-contained, so there is nothing to store in the Database.
+        if (tokenService.isSignedMode())
+            return Optional.of(person);
+
+        // Every Login creates a new Session, the other Sessions of the Person stay valid.
+        person.setToken(UUIDUtil.randomTimeOrderedUUID());
         try {
-            if (updateToken(person)) {
+            if (createSession(person)) {
                 return Optional.of(person);
             }
         } catch (Exception e) {
-            log.warn("Database Error while updating Token for User %s", person);
+            log.warn("Database Error while creating Session for User {}", person);
         }
 
         return Optional.empty();
     }
 
     /**
-     * Logout the currently logged-in user
+     * Logout the currently logged-in user.
+     * Only the Session the Request was sent with is ended, other Sessions of the user stay valid.
+     * <br/>
+     * NOTE: Signed Tokens cannot be revoked one by one ("swa.token.mode: signed"),
+     *       so there a Logout ends all Sessions of the user (see {@link TokenService#revokeTokens(UUID)}).
      *
      * @return true if user has been logged out, false otherwise
      */
@@ -73,12 +225,43 @@ public class PersonService {
         Optional<Person> maybePerson = AuthContext.getCurrentPerson();
         if (maybePerson.isPresent()) {
             Person person = maybePerson.get();
+            if (tokenService.isSignedMode()) {
+                tokenService.revokeTokens(person.getPersonId());
+                return true;
+            }
+
+            UUID token = person.getToken();
+            if (token == null)
+                return false;
+
+            sessionCache.invalidate(token);
+            // NOTE: The Session might not have been written yet, then it is only dropped from the Queue.
+            boolean discarded = tokenWriteBehind.discard(token);
+            boolean deleted = sessionRepository.deleteByPersonIdAndToken(person.getPersonId(), token) > 0;
             person.setToken(null);
-            return updateToken(person);
+            return discarded || deleted;
         } else {
             return false;
         }
     }
+
+    /**
+     * Stores a new Session for the current Token of the given Person.
+     * If the Person has more Sessions than allowed ("swa.token.sessions.max-per-person"), the oldest ones are ended.
+     *
+     * @param person The Person with its new Token.
+     * @return true if the Session was stored, false otherwise.
+     */
+    private boolean createSession(Person person) {
+        // NOTE: If the Write-Behind is enabled, the Session is written in a Batch shortly after.
+        if (tokenWriteBehind.enqueue(person))
+            return true;
+
+        sessionRepository.save(new PersonSession(person));
+        sessionRepository.deleteOldestSessions(person.getPersonId(), maxSessionsPerPerson)
+                .forEach(sessionCache::invalidate);
+        return true;
+    }
     //endregion
 
     //region Find
@@ -99,7 +282,12 @@ public class PersonService {
      * @return person if found, otherwise nothing
      */
     public Optional<Person> findByUsernameAndToken(String username, UUID token) {
-        return personRepository.findByUsernameAndToken(username, token);
+        return sessionRepository.findByUsernameAndToken(username, token)
+                .map(session -> {
+                    Person person = session.getPerson();
+                    person.setToken(session.getToken(), session.getCreationDate());
+                    return person;
+                });
     }
 
     /**
@@ -109,7 +297,7 @@ public class PersonService {
      * @return person if found, otherwise nothing
      */
     public Optional<Person> findById(UUID id) {
-        return personRepository.findById(id);
+        return personCache.findById(id, () -> personRepository.findById(id));
     }
     //endregion
 
@@ -119,10 +307,25 @@ public class PersonService {
      *
      * @param person person to be created
      * @return true if person has been created, false otherwise
+     * @throws ServiceOverloadedException if too many Passwords are being hashed at the same time
      */
-    public boolean create(Person person) {
+    public boolean create(Person person) throws ServiceOverloadedException {
         if (person != null && person.getPersonId() == null) {
-            return save(person) != null;
+            // Reject taken Usernames before hashing the Password instead of waiting for the Unique Constraint to fail.
+            if (usernameFilter.isTaken(person.getUsername()))
+                return false;
+            if (save(person) == null)
+                return false;
+            // A Person that is created with a Token is logged in right away (e.g. on Registration).
+            if (person.getToken() != null && !tokenService.isSignedMode()) {
+                try {
+                    return createSession(person);
+                } catch (Exception e) {
+                    log.warn("Database Error while creating Session for User {}", person);
+                    return false;
+                }
+            }
+            return true;
         } else {
             return false;
         }
@@ -133,12 +336,20 @@ public class PersonService {
      *
      * @param person person to save
      * @return the person that has been saved if successful, null otherwise
+     * @throws ServiceOverloadedException if too many Passwords are being hashed at the same time
      */
-    public Person save(Person person) {
+    public Person save(Person person) throws ServiceOverloadedException {
         try {
             if (!person.isPasswordHashed())
-                person.hashPassword(passwordEncoder);
-            return personRepository.save(person);
+                passwordHashingExecutor.run(() -> person.hashPassword(passwordEncoder));
+            Person savedPerson = personRepository.save(person);
+            personCache.invalidate(savedPerson.getPersonId());
+            usernameFilter.add(savedPerson.getUsername());
+            personSearch.put(savedPerson.getPersonId(), savedPerson.getUsername(), savedPerson.getEmail());
+            return savedPerson;
+        } catch (ServiceOverloadedException e) {
+            // The Request should be retried later, so do not swallow this.
+            throw e;
         } catch (Exception e) {
             return null;
         }
@@ -151,6 +362,9 @@ public class PersonService {
      * The User is given directly
      * The other Parameters are used to change the user.
      * Parameters that are set to null are left unchanged.
+     * <br/>
+     * Only the Columns that actually differ from the given Person are written with a single UPDATE,
+     * so e.g. resending the same Permissions does not touch the Database at all.
      *
      * @implNote This method does not check if the current user is permitted to delete the given user.
      * @param person The person to update
@@ -158,17 +372,29 @@ public class PersonService {
      * @param permissions The set of new permissions.
      * @param password The new Password.
      * @return true if the user could be found and could be updated, false otherwise.
+     * @throws ServiceOverloadedException if too many Passwords are being hashed at the same time
      */
-    public boolean update(Person person, String username, String password, Set<Permission> permissions) {
-        if(person != null && person.getPersonId() != null) {
-            if (username    != null) person.setUsername(username);
-            if (permissions != null) person.setPermissions(permissions);
-            if (password    != null) person.setPassword(password);
+    public boolean update(Person person, String username, String password, Set<Permission> permissions) throws ServiceOverloadedException {
+        if (person == null || person.getPersonId() == null)
+            return false;
 
-            return save(person) != null;
-        }
+        String changedUsername = username != null && !username.equals(person.getUsername()) ? username : null;
+        Set<Permission> changedPermissions = permissions != null && !permissions.equals(person.getPermissions()) ? permissions : null;
+        // NOTE: The Password is hashed separately, so the given Person stays unchanged if the Update fails.
+        String passwordHash = password != null
+                ? passwordHashingExecutor.execute(() -> passwordEncoder.encode(password))
+                : null;
+
+        if (changedUsername == null && changedPermissions == null && passwordHash == null)
+            return true;
 
-        return false;
+        if (!updateFields(person.getPersonId(), changedUsername, null, changedPermissions, passwordHash))
+            return false;
+
+        if (changedUsername    != null) person.setUsername(changedUsername);
+        if (changedPermissions != null) person.setPermissions(changedPermissions);
+        if (passwordHash       != null) person.setHashedPassword(passwordHash);
+        return true;
     }
 
     /**
@@ -181,15 +407,66 @@ public class PersonService {
      * @param permissions set of new permissions
      * @param password new password
      * @return true if user was successfully update, false otherwise
+     * @throws ServiceOverloadedException if too many Passwords are being hashed at the same time
      */
-    public boolean update(UUID personId, String username, Set<Permission> permissions, String password) {
-        Optional<Person> maybePerson = findById(personId);
-        return maybePerson.filter(person -> update(person, username, password, permissions)).isPresent();
+    public boolean update(UUID personId, String username, Set<Permission> permissions, String password) throws ServiceOverloadedException {
+        return update(personId, username, null, permissions, password);
     }
 
-    private boolean updateToken(Person person) {
-        return personRepository.updateToken(person) != null;
+    /**
+     * Updates a Person identified by its ID without loading it first.
+     * Only the given Columns are written with a single UPDATE.
+     * Parameters that are set to null are left unchanged.
+     *
+     * @implNote This method does not check if the current user is permitted to delete the given user.
+     * @param personId The ID of the Person to update.
+     * @param username The new Username.
+     * @param email The new Email.
+     * @param permissions The Set of new Permissions.
+     * @param password The new Password.
+     * @return true if the Person exists and could be updated, false otherwise.
+     * @throws ServiceOverloadedException if too many Passwords are being hashed at the same time
+     */
+    public boolean update(UUID personId, String username, String email, Set<Permission> permissions, String password) throws ServiceOverloadedException {
+        if (personId == null)
+            return false;
+
+        if (username == null && email == null && permissions == null && password == null)
+            return personRepository.existsById(personId);
+
+        String passwordHash = password != null
+                ? passwordHashingExecutor.execute(() -> passwordEncoder.encode(password))
+                : null;
+        return updateFields(personId, username, email, permissions, passwordHash);
     }
+
+    /**
+     * Writes the given Columns of a Person and ends its cached and signed Sessions.
+     *
+     * @return true if the Person exists and could be updated, false otherwise (e.g. if the Username is taken).
+     */
+    private boolean updateFields(UUID personId, String username, String email, Set<Permission> permissions, String passwordHash) {
+        try {
+            int updated = personRepository.updateFields(
+                    personId, username, email,
+                    permissions != null ? Set.<GrantedAuthority>copyOf(permissions) : null,
+                    passwordHash
+            );
+            if (updated != 1)
+                return false;
+        } catch (Exception e) {
+            return false;
+        }
+
+        usernameFilter.rename(username);
+        personSearch.update(personId, username, email);
+        personCache.invalidate(personId);
+        sessionCache.invalidatePerson(personId);
+        // Signed Tokens carry the Username and Permissions, so they have to be reissued.
+        tokenService.revokeTokens(personId);
+        return true;
+    }
+
     //endregion
 
     //region Delete
@@ -202,7 +479,14 @@ public class PersonService {
      */
     public boolean delete(UUID personId) {
         try {
+            this.sessionRepository.deleteByPersonId(personId);
             this.personRepository.deleteById(personId);
+            personCache.invalidate(personId);
+            sessionCache.invalidatePerson(personId);
+            tokenService.revokeTokens(personId);
+            tokenWriteBehind.discardPerson(personId);
+            usernameFilter.markStale(1);
+            personSearch.remove(personId);
             return true;
         } catch (Exception e) {
             return false;
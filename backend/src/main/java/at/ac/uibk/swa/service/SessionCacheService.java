@@ -0,0 +1,147 @@
+package at.ac.uibk.swa.service;
+
+import at.ac.uibk.swa.config.jwt_authentication.JwtToken;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.util.cache.ExpiringCache;
+import at.ac.uibk.swa.util.cache.ExpiringCacheMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-Memory Cache mapping Session Tokens to the {@link Person} they belong to,
+ * so that authenticated Requests do not need to query the Database.
+ * <br/>
+ * Entries live at most as long as a Token is valid ("swa.token.expiration-duration"),
+ * the {@link PersonService} invalidates them whenever a Token or the Person itself changes.
+ *
+ * @see LoginService
+ */
+@Service
+public class SessionCacheService {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${swa.token.expiration-duration:1h}")
+    private Duration tokenExpirationDuration;
+
+    @Value("${swa.token.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${swa.token.cache.max-size:10000}")
+    private long maxSize;
+
+    private ExpiringCache<UUID, Person> sessions;
+
+    /**
+     * Counts the Invalidations so that Lookups which raced with an Invalidation do not re-insert a stale Person.
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @PostConstruct
+    private void createCache() {
+        this.sessions = ExpiringCacheMetrics.monitor(
+                meterRegistry,
+                new ExpiringCache<>(maxSize, tokenExpirationDuration),
+                "sessions"
+        );
+    }
+
+    //region Lookup
+    /**
+     * Find the Person the given Token belongs to, loading it with the given Function if it is not cached yet.
+     *
+     * @param token The Token sent with the Request.
+     * @param loader The Function for loading the Person from the Database.
+     * @return A private Copy of the Person if the Token is valid, empty otherwise.
+     */
+    public Optional<Person> get(JwtToken token, Supplier<Optional<Person>> loader) {
+        if (!enabled || token.getToken() == null)
+            return loader.get();
+
+        Optional<Person> cached = sessions.get(token.getToken())
+                .filter(person -> Objects.equals(person.getUsername(), token.getUsername()));
+        if (cached.isPresent())
+            return cached.map(SessionCacheService::copy);
+
+        long invalidationsBeforeLoad = invalidations.get();
+        Optional<Person> maybePerson = loader.get();
+        maybePerson.ifPresent(person -> put(person, invalidationsBeforeLoad));
+        return maybePerson;
+    }
+
+    private void put(Person person, long invalidationsBeforeLoad) {
+        Person copy = copy(person);
+        sessions.put(copy.getToken(), copy);
+
+        // NOTE: If an Invalidation happened while the Person was loaded, the loaded Person might already be stale.
+        //       Checking after inserting ensures that either this Thread or the Invalidation removes the Entry.
+        if (invalidations.get() != invalidationsBeforeLoad)
+            sessions.invalidate(copy.getToken(), copy);
+    }
+
+    /**
+     * Copies the Person, so that the cached Instance is never modified by a Request
+     * (e.g. by the {@link org.springframework.security.authentication.ProviderManager} erasing its Credentials).
+     */
+    static Person copy(Person person) {
+        return person.toBuilder()
+                .permissions(new HashSet<>(person.getPermissions()))
+                .build();
+    }
+    //endregion
+
+    //region Invalidation
+    /**
+     * Removes the Session with the given Token from the Cache.
+     *
+     * @param token The Token that changed.
+     */
+    public void invalidate(UUID token) {
+        invalidations.incrementAndGet();
+        if (token != null)
+            sessions.invalidate(token);
+    }
+
+    /**
+     * Removes all Sessions of the given Person from the Cache.
+     *
+     * @implNote This walks the whole Cache, so only use it for Operations that are rare compared to Requests.
+     * @param personId The ID of the Person that changed.
+     */
+    public void invalidatePerson(UUID personId) {
+        invalidations.incrementAndGet();
+        if (personId != null)
+            sessions.invalidateIf(person -> personId.equals(person.getPersonId()));
+    }
+
+    /**
+     * Removes all Sessions of the given Persons from the Cache.
+     *
+     * @implNote This walks the whole Cache once (regardless of the Number of Persons),
+     *           so only use it for Operations that are rare compared to Requests.
+     * @param personIds The IDs of the Persons that changed.
+     */
+    public void invalidatePersons(Collection<UUID> personIds) {
+        invalidations.incrementAndGet();
+        if (personIds.isEmpty())
+            return;
+
+        Set<UUID> changed = personIds instanceof Set<UUID> set ? set : new HashSet<>(personIds);
+        sessions.invalidateIf(person -> changed.contains(person.getPersonId()));
+    }
+    //endregion
+}
@@ -0,0 +1,116 @@
+package at.ac.uibk.swa.service;
+
+import at.ac.uibk.swa.repositories.PersonSessionRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service deleting Sessions whose Token expired ("swa.token.expiration-duration").
+ * <br/>
+ * Expired Sessions are deleted in Chunks of "swa.token.purge.chunk-size" by their Primary Key,
+ * each Chunk in its own short Transaction, so Logins are never blocked for long.
+ * A single Run deletes at most "swa.token.purge.max-chunks" Chunks, the Rest is left for the next Run.
+ * <br/>
+ * Publishes the Duration of a Run ("token.purge.duration"), the Rows deleted per Run ("token.purge.rows")
+ * and the Number of expired Sessions left after the last Run ("token.purge.backlog").
+ *
+ * @see at.ac.uibk.swa.util.SchedulerUtil
+ */
+@Slf4j
+@Service
+public class SessionPurgeService {
+
+    @Autowired
+    private PersonSessionRepository sessionRepository;
+
+    @Autowired
+    private SessionCacheService sessionCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${swa.token.expiration-duration:1h}")
+    private Duration tokenExpirationDuration;
+
+    @Value("${swa.token.purge.enabled:true}")
+    private boolean enabled;
+
+    @Value("${swa.token.purge.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${swa.token.purge.max-chunks:100}")
+    private int maxChunks;
+
+    private final AtomicLong backlog = new AtomicLong();
+
+    private Timer purgeTimer;
+    private DistributionSummary purgedRows;
+
+    @PostConstruct
+    private void registerMetrics() {
+        this.purgeTimer = Timer.builder("token.purge.duration")
+                .description("Time needed to delete the expired Sessions")
+                .register(meterRegistry);
+        this.purgedRows = DistributionSummary.builder("token.purge.rows")
+                .description("Number of expired Sessions deleted per Run")
+                .register(meterRegistry);
+        Gauge.builder("token.purge.backlog", backlog, AtomicLong::get)
+                .description("Number of expired Sessions that were left for the next Run")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Deletes the expired Sessions.
+     *
+     * @return The Number of deleted Sessions.
+     */
+    public int purgeExpiredSessions() {
+        if (!enabled)
+            return 0;
+
+        LocalDateTime expiredBefore = LocalDateTime.now().minus(tokenExpirationDuration);
+        int deleted = purgeTimer.record(() -> purgeCreatedBefore(expiredBefore));
+        purgedRows.record(deleted);
+        if (deleted > 0)
+            log.debug("Deleted {} expired Sessions", deleted);
+        return deleted;
+    }
+
+    private int purgeCreatedBefore(LocalDateTime expiredBefore) {
+        PageRequest chunk = PageRequest.of(0, chunkSize);
+        int deleted = 0;
+        for (int i = 0; i < maxChunks; i++) {
+            List<UUID> tokens = sessionRepository.findTokensCreatedBefore(expiredBefore, chunk);
+            if (tokens.isEmpty()) {
+                backlog.set(0);
+                return deleted;
+            }
+
+            deleted += sessionRepository.deleteByTokens(tokens);
+            tokens.forEach(sessionCache::invalidate);
+
+            if (tokens.size() < chunkSize) {
+                backlog.set(0);
+                return deleted;
+            }
+        }
+
+        // NOTE: Only count the Backlog if the Run stopped early, because counting needs another Scan.
+        backlog.set(sessionRepository.countCreatedBefore(expiredBefore));
+        return deleted;
+    }
+}
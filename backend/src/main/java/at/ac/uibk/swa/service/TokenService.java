@@ -0,0 +1,252 @@
+package at.ac.uibk.swa.service;
+
+import at.ac.uibk.swa.config.jwt_authentication.SignedToken;
+import at.ac.uibk.swa.models.Permission;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.models.TokenRevocation;
+import at.ac.uibk.swa.repositories.TokenRevocationRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service for creating and checking the Tokens that are handed out on Login.
+ * <br/>
+ * Depending on "swa.token.mode" a Token is either:
+ * <ul>
+ *     <li><b>database</b>: The random Session UUID stored with the {@link Person} (the default).</li>
+ *     <li><b>signed</b>: A self-contained, HMAC-signed Token carrying the Person's ID, Username, Permissions and
+ *     Issue Time, which can be verified without a Database Lookup.</li>
+ * </ul>
+ * Signed Tokens cannot be deleted, so on Logout the Person is added to an in-memory Revocation Set,
+ * which invalidates all Tokens of the Person that were issued before the Logout.
+ * The Revocations are also stored as {@link TokenRevocation}s and loaded on Startup, so a Restart does not bring back
+ * revoked Tokens (other Instances only see them after their next Restart).
+ * Entries are dropped once all Tokens they revoke have expired anyway.
+ */
+@Slf4j
+@Service
+public class TokenService {
+
+    public enum TokenMode {
+        DATABASE,
+        SIGNED;
+
+        public static TokenMode fromString(String string) {
+            try {
+                return TokenMode.valueOf(string.trim().toUpperCase());
+            } catch (Exception e) {
+                // Be strict: Fall back to the Database, which can always revoke Tokens.
+                return TokenMode.DATABASE;
+            }
+        }
+    }
+
+    private static final String SIGNATURE_ALGORITHM = "HmacSHA256";
+    private static final byte FORMAT_VERSION = 1;
+    /**
+     * Upper Bound for the Length of a signed Token, longer Tokens are rejected without verifying them.
+     */
+    private static final int MAX_TOKEN_LENGTH = 1024;
+    private static final int MIN_REVOCATION_SWEEP_SIZE = 1024;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    @Autowired
+    private TokenRevocationRepository revocationRepository;
+
+    @Value("${swa.token.mode:database}")
+    private String tokenModeString;
+
+    private TokenMode tokenMode;
+
+    @Value("${swa.token.signing-key:}")
+    private String signingKey;
+
+    @Value("${swa.token.expiration-duration:1h}")
+    private Duration tokenExpirationDuration;
+
+    private SecretKeySpec secretKey;
+
+    /**
+     * A {@link Mac} is not thread-safe, so every Thread gets its own Instance.
+     */
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::createMac);
+
+    /**
+     * Maps the IDs of Persons that logged out to the Time of their Logout (in Epoch Milliseconds).
+     */
+    private final Map<UUID, Long> revocations = new ConcurrentHashMap<>();
+    private volatile int nextRevocationSweep = MIN_REVOCATION_SWEEP_SIZE;
+
+    @PostConstruct
+    private void loadSigningKey() {
+        this.tokenMode = TokenMode.fromString(tokenModeString);
+
+        byte[] key;
+        if (signingKey == null || signingKey.isBlank()) {
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            if (isSignedMode())
+                log.warn("No \"swa.token.signing-key\" configured, signed Tokens will be invalid after a Restart!");
+        } else {
+            key = Base64.getDecoder().decode(signingKey);
+        }
+        this.secretKey = new SecretKeySpec(key, SIGNATURE_ALGORITHM);
+
+        if (isSignedMode())
+            loadRevocations();
+    }
+
+    /**
+     * Loads the stored Revocations of Tokens that are not expired yet and deletes the others.
+     */
+    private void loadRevocations() {
+        long expiredBefore = System.currentTimeMillis() - tokenExpirationDuration.toMillis();
+        revocationRepository.deleteRevokedBefore(expiredBefore);
+        revocationRepository.findRevokedAfter(expiredBefore)
+                .forEach(revocation -> revocations.merge(revocation.getPersonId(), revocation.getRevokedAt(), Math::max));
+        nextRevocationSweep = Math.max(MIN_REVOCATION_SWEEP_SIZE, revocations.size() * 2);
+        log.debug("Loaded {} Token Revocations", revocations.size());
+    }
+
+    private Mac createMac() {
+        try {
+            Mac mac = Mac.getInstance(SIGNATURE_ALGORITHM);
+            mac.init(secretKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not initialize the Token Signature", e);
+        }
+    }
+
+    public boolean isSignedMode() {
+        return tokenMode == TokenMode.SIGNED;
+    }
+
+    //region Issuing
+    /**
+     * Creates the Token that is sent to a Person after a successful Login.
+     *
+     * @param person The Person that logged in.
+     * @return The Token the Person has to send with subsequent Requests.
+     */
+    public String createToken(Person person) {
+        if (!isSignedMode())
+            return Objects.toString(person.getToken(), null);
+
+        byte[] username = person.getUsername().getBytes(StandardCharsets.UTF_8);
+        UUID personId = person.getPersonId();
+        ByteBuffer payload = ByteBuffer.allocate(1 + 16 + 8 + 4 + username.length)
+                .put(FORMAT_VERSION)
+                .putLong(personId.getMostSignificantBits())
+                .putLong(personId.getLeastSignificantBits())
+                .putLong(System.currentTimeMillis())
+                .putInt(Permission.toMask(person.getPermissions()))
+                .put(username);
+
+        byte[] payloadBytes = payload.array();
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes));
+    }
+
+    private byte[] sign(byte[] payload) {
+        return macs.get().doFinal(payload);
+    }
+    //endregion
+
+    //region Verification
+    /**
+     * Checks the Signature of the given Token and whether it was revoked.
+     *
+     * @implNote This does not check whether the Token is expired.
+     * @param token The Token sent with the Request.
+     * @return The Contents of the Token if it is valid, empty otherwise.
+     */
+    public Optional<SignedToken> verifyToken(String token) {
+        if (!isSignedMode() || token == null || token.length() > MAX_TOKEN_LENGTH)
+            return Optional.empty();
+
+        int separator = token.indexOf('.');
+        if (separator < 0)
+            return Optional.empty();
+
+        try {
+            byte[] payload = DECODER.decode(token.substring(0, separator));
+            byte[] signature = DECODER.decode(token.substring(separator + 1));
+            // NOTE: Use a constant-time Comparison, so the Signature cannot be guessed Byte by Byte.
+            if (!MessageDigest.isEqual(sign(payload), signature))
+                return Optional.empty();
+
+            ByteBuffer buffer = ByteBuffer.wrap(payload);
+            if (buffer.get() != FORMAT_VERSION)
+                return Optional.empty();
+            UUID personId = new UUID(buffer.getLong(), buffer.getLong());
+            Instant issuedAt = Instant.ofEpochMilli(buffer.getLong());
+            Set<GrantedAuthority> permissions = Permission.fromMask(buffer.getInt());
+            String username = StandardCharsets.UTF_8.decode(buffer).toString();
+
+            if (isRevoked(personId, issuedAt))
+                return Optional.empty();
+
+            return Optional.of(new SignedToken(personId, username, permissions, issuedAt));
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            return Optional.empty();
+        }
+    }
+    //endregion
+
+    //region Revocation
+    /**
+     * Revokes all signed Tokens of the given Person that were issued up until now.
+     *
+     * @param personId The ID of the Person whose Tokens should be revoked.
+     */
+    public void revokeTokens(UUID personId) {
+        if (!isSignedMode() || personId == null)
+            return;
+
+        long revokedAt = System.currentTimeMillis();
+        revocations.merge(personId, revokedAt, Math::max);
+        try {
+            revocationRepository.save(new TokenRevocation(personId, revokedAt));
+        } catch (Exception e) {
+            // NOTE: The Tokens are still revoked in memory, they would only be valid again after a Restart.
+            log.warn("Could not store the Revocation of the Tokens of Person {}", personId, e);
+        }
+
+        if (revocations.size() >= nextRevocationSweep) {
+            // Revocations are only needed until all Tokens they revoke are expired.
+            long expiredBefore = System.currentTimeMillis() - tokenExpirationDuration.toMillis();
+            revocations.values().removeIf(time -> time < expiredBefore);
+            nextRevocationSweep = Math.max(MIN_REVOCATION_SWEEP_SIZE, revocations.size() * 2);
+            try {
+                revocationRepository.deleteRevokedBefore(expiredBefore);
+            } catch (Exception e) {
+                log.warn("Could not delete the expired Token Revocations", e);
+            }
+        }
+    }
+
+    private boolean isRevoked(UUID personId, Instant issuedAt) {
+        Long revokedAt = revocations.get(personId);
+        return revokedAt != null && issuedAt.toEpochMilli() <= revokedAt;
+    }
+    //endregion
+}
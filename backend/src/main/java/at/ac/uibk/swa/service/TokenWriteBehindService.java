@@ -0,0 +1,304 @@
+package at.ac.uibk.swa.service;
+
+import at.ac.uibk.swa.config.jwt_authentication.JwtToken;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.repositories.PersonSessionRepository;
+import at.ac.uibk.swa.util.UUIDUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-Behind Queue for the Sessions created by Logins.
+ * <br/>
+ * Instead of running a single-row INSERT per Login, new Sessions are queued and written in JDBC Batches
+ * every "swa.token.write-behind.flush-interval".
+ * <br/>
+ * Queued Sessions are visible to the Authentication right away (see {@link LoginService}).
+ * Ending a queued Session removes it from the Queue, so it is never written (see {@link #discard(UUID)}).
+ * On Shutdown all queued Sessions are flushed.
+ * <br/>
+ * Changes to the Username or Permissions of a Person with a queued Session only become visible
+ * to the Authentication once the Session was written (after at most one Flush Interval).
+ * The Session Limit ("swa.token.sessions.max-per-person") is enforced when the Sessions are written.
+ *
+ * @implNote If the Queue is full (or the Write-Behind is disabled), Sessions are written synchronously.
+ */
+@Slf4j
+@Service
+public class TokenWriteBehindService {
+
+    private static final String INSERT_SESSION_SQL =
+            "INSERT INTO person_session (token, person_id, creation_date) VALUES (?, ?, ?)";
+    private static final String DELETE_SESSION_SQL =
+            "DELETE FROM person_session WHERE token = ?";
+
+    /**
+     * A queued Session.
+     *
+     * @param person A private Copy of the Person with the new Token (used for Authentication until it is written).
+     */
+    private record PendingSession(Person person, UUID token, LocalDateTime creationDate) { }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SessionCacheService sessionCache;
+
+    @Autowired
+    private PersonSessionRepository sessionRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${swa.token.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${swa.token.write-behind.flush-interval:50ms}")
+    private Duration flushInterval;
+
+    @Value("${swa.token.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${swa.token.write-behind.max-pending:100000}")
+    private int maxPending;
+
+    @Value("${swa.token.sessions.max-per-person:5}")
+    private int maxSessionsPerPerson;
+
+    @Value("${swa.uuid.jdbc-type:NVARCHAR}")
+    private String uuidJdbcType;
+
+    /**
+     * The queued Sessions by their Token, so they can be used for Authentication.
+     */
+    private final Map<UUID, PendingSession> pendingByToken = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService flushExecutor;
+    private TransactionTemplate transactionTemplate;
+    private Timer flushTimer;
+    private Counter writtenCounter;
+
+    @PostConstruct
+    private void startFlushing() {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("token.write_behind.pending", pendingByToken, Map::size)
+                .description("Number of queued Sessions")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("token.write_behind.flush")
+                .description("Time needed to write a Batch of Sessions")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("token.write_behind.written")
+                .description("Number of Sessions written to the Database")
+                .register(meterRegistry);
+
+        if (!enabled)
+            return;
+
+        this.flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalNanos = flushInterval.toNanos();
+        flushExecutor.scheduleWithFixedDelay(this::flushSafely, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    private void stopFlushing() throws InterruptedException {
+        if (flushExecutor == null)
+            return;
+
+        flushExecutor.shutdown();
+        if (!flushExecutor.awaitTermination(10, TimeUnit.SECONDS))
+            log.warn("Token Write-Behind did not finish its last Flush in time!");
+
+        // Write everything that is still queued, a failing Batch is retried a few times.
+        for (int attempt = 0; attempt < 3 && !pendingByToken.isEmpty(); attempt++)
+            flushSafely();
+        if (!pendingByToken.isEmpty())
+            log.error("Lost {} Sessions on Shutdown!", pendingByToken.size());
+    }
+
+    //region Queueing
+    /**
+     * Queues a Session for the current Token of the given Person to be written to the Database.
+     *
+     * @param person The Person that logged in.
+     * @return true if the Session was queued, false if it has to be written synchronously.
+     */
+    public boolean enqueue(Person person) {
+        if (!enabled || person.getPersonId() == null || person.getToken() == null)
+            return false;
+        if (pendingByToken.size() >= maxPending)
+            return false;
+
+        PendingSession pending = new PendingSession(
+                SessionCacheService.copy(person),
+                person.getToken(),
+                person.getTokenCreationDate()
+        );
+        pendingByToken.put(pending.token(), pending);
+        return true;
+    }
+
+    /**
+     * Drops a queued Session that was ended before it was written.
+     *
+     * @param token The Token of the ended Session.
+     * @return true if the Session was still queued, false otherwise.
+     */
+    public boolean discard(UUID token) {
+        return token != null && pendingByToken.remove(token) != null;
+    }
+
+    /**
+     * Drops all queued Sessions of a Person that was deleted.
+     *
+     * @implNote This walks the whole Queue, so only use it for rare Operations.
+     * @param personId The ID of the deleted Person.
+     */
+    public void discardPerson(UUID personId) {
+        if (personId != null)
+            pendingByToken.values().removeIf(pending -> personId.equals(pending.person().getPersonId()));
+    }
+
+    /**
+     * Drops all queued Sessions of Persons that were deleted.
+     *
+     * @implNote This walks the whole Queue once (regardless of the Number of Persons), so only use it for rare Operations.
+     * @param personIds The IDs of the deleted Persons.
+     */
+    public void discardPersons(Collection<UUID> personIds) {
+        if (personIds.isEmpty() || pendingByToken.isEmpty())
+            return;
+
+        Set<UUID> deleted = personIds instanceof Set<UUID> set ? set : new HashSet<>(personIds);
+        pendingByToken.values().removeIf(pending -> deleted.contains(pending.person().getPersonId()));
+    }
+    //endregion
+
+    //region Lookup
+    /**
+     * Finds a Person by the Token of a Session that was not written to the Database yet.
+     *
+     * @param token The Token sent with the Request.
+     * @return A private Copy of the Person if the Session is queued, empty otherwise.
+     */
+    public Optional<Person> findByUsernameAndToken(JwtToken token) {
+        if (!enabled || token.getToken() == null)
+            return Optional.empty();
+
+        return Optional.ofNullable(pendingByToken.get(token.getToken()))
+                .map(PendingSession::person)
+                .filter(person -> Objects.equals(person.getUsername(), token.getUsername()))
+                .map(SessionCacheService::copy);
+    }
+    //endregion
+
+    //region Flushing
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            // NOTE: The Updates stay queued and are retried with the next Flush.
+            log.warn("Could not flush queued Token Updates", e);
+        }
+    }
+
+    /**
+     * Writes all currently queued Sessions in Batches of "swa.token.write-behind.batch-size".
+     */
+    public void flush() {
+        List<PendingSession> batch = new ArrayList<>(Math.min(batchSize, pendingByToken.size()));
+        for (PendingSession pending : pendingByToken.values()) {
+            batch.add(pending);
+            if (batch.size() >= batchSize) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty())
+            writeBatch(batch);
+    }
+
+    private void writeBatch(List<PendingSession> batch) {
+        List<PendingSession> written = batch;
+        try {
+            flushTimer.record(() -> insertSessions(batch));
+        } catch (DataIntegrityViolationException e) {
+            // NOTE: The Person of a Session was deleted in the meantime, which fails the whole Batch.
+            //       Insert the Sessions one by one instead and drop the ones whose Person is gone.
+            written = new ArrayList<>(batch.size());
+            for (PendingSession pending : batch) {
+                try {
+                    insertSessions(List.of(pending));
+                    written.add(pending);
+                } catch (DataIntegrityViolationException ignored) {
+                    pendingByToken.remove(pending.token(), pending);
+                }
+            }
+        }
+        writtenCounter.increment(written.size());
+
+        // NOTE: Only remove the Sessions after they were committed, so the Authentication never misses them.
+        //       Sessions that were ended while the Batch was written have to be deleted again.
+        List<UUID> ended = new ArrayList<>();
+        Set<UUID> personIds = new HashSet<>();
+        for (PendingSession pending : written) {
+            if (!pendingByToken.remove(pending.token(), pending))
+                ended.add(pending.token());
+            personIds.add(pending.person().getPersonId());
+        }
+        if (!ended.isEmpty())
+            jdbcTemplate.batchUpdate(DELETE_SESSION_SQL, ended, ended.size(), (statement, token) -> bindUUID(statement, 1, token));
+
+        for (UUID personId : personIds)
+            sessionRepository.deleteOldestSessions(personId, maxSessionsPerPerson).forEach(sessionCache::invalidate);
+    }
+
+    private void insertSessions(List<PendingSession> sessions) {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SESSION_SQL, sessions, sessions.size(), (statement, pending) -> {
+                    bindUUID(statement, 1, pending.token());
+                    bindUUID(statement, 2, pending.person().getPersonId());
+                    statement.setTimestamp(3, Timestamp.valueOf(pending.creationDate()));
+                })
+        );
+    }
+
+    /**
+     * Binds the UUID the same Way Hibernate stores it (see "swa.uuid.jdbc-type").
+     */
+    private void bindUUID(PreparedStatement statement, int index, UUID uuid) throws SQLException {
+        UUIDUtil.bindUUID(statement, index, uuid, uuidJdbcType);
+    }
+    //endregion
+}
@@ -0,0 +1,230 @@
+package at.ac.uibk.swa.service;
+
+import at.ac.uibk.swa.repositories.PersonRepository;
+import at.ac.uibk.swa.util.concurrent.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Service answering whether a Username is taken without asking the Database in most Cases.
+ * <br/>
+ * All existing Usernames are kept in a {@link BloomFilter}, which is filled at Startup
+ * and extended whenever a Person is created or renamed.
+ * If the Filter does not contain a Username, it is definitely free.
+ * Otherwise the Database is asked, so the Filter never rejects a free Username.
+ * <br/>
+ * Deleted and old Usernames cannot be removed from the Filter. They are only counted as stale
+ * and the Filter is rebuilt once more than "swa.persons.username-filter.rebuild-stale-ratio" of its Entries are stale.
+ * <br/>
+ * Publishes the estimated False Positive Probability ("persons.username_filter.false_positive_probability"),
+ * the Size of the Filter ("persons.username_filter.memory") and the Outcome of every Check ("persons.username_filter.checks").
+ *
+ * @see at.ac.uibk.swa.util.SchedulerUtil
+ */
+@Slf4j
+@Service
+public class UsernameFilterService {
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${swa.persons.username-filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${swa.persons.username-filter.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${swa.persons.username-filter.false-positive-probability:0.01}")
+    private double falsePositiveProbability;
+
+    @Value("${swa.persons.username-filter.rebuild-stale-ratio:0.2}")
+    private double rebuildStaleRatio;
+
+    private TransactionTemplate transactionTemplate;
+
+    private volatile BloomFilter filter;
+    // NOTE: While the Filter is rebuilt, new Usernames are added to both Filters, so they are not lost when swapping them.
+    //       A Username missing from the Filter anyway only costs a failed INSERT, because the Unique Constraint still rejects it.
+    private volatile BloomFilter rebuilding;
+
+    private final AtomicLong entries = new AtomicLong();
+    private final AtomicLong staleEntries = new AtomicLong();
+
+    private Counter missCounter;
+    private Counter hitCounter;
+    private Counter falsePositiveCounter;
+
+    @PostConstruct
+    private void setup() {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+
+        this.missCounter = counter("miss");
+        this.hitCounter = counter("hit");
+        this.falsePositiveCounter = counter("false_positive");
+        Gauge.builder("persons.username_filter.false_positive_probability", this, s -> s.filter != null ? s.filter.expectedFalsePositiveProbability() : 0)
+                .description("Estimated Probability that a free Username has to be looked up in the Database")
+                .register(meterRegistry);
+        Gauge.builder("persons.username_filter.memory", this, s -> s.filter != null ? s.filter.memoryBytes() : 0)
+                .description("Size of the Bit Array of the Username Filter")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("persons.username_filter.stale", staleEntries, AtomicLong::get)
+                .description("Number of deleted or renamed Usernames still contained in the Username Filter")
+                .register(meterRegistry);
+
+        if (enabled) {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                // NOTE: Without a Filter every Username is looked up in the Database, so the Application still works.
+                log.warn("Could not build the Username Filter", e);
+            }
+        }
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("persons.username_filter.checks")
+                .description("Outcome of the Username Checks (false_positive means the Database had to be asked in vain)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    //region Checks
+    /**
+     * Checks whether the given Username might be taken.
+     *
+     * @param username The Username to check.
+     * @return false if the Username is definitely free, true if it might be taken.
+     */
+    public boolean mightBeTaken(String username) {
+        BloomFilter current = this.filter;
+        return !enabled || current == null || current.mightContain(username);
+    }
+
+    /**
+     * Checks whether the given Username is taken, only asking the Database if the Filter cannot rule it out.
+     *
+     * @implNote A Username that is free here might still be taken by a concurrent Request,
+     *           so the Unique Constraint is still needed when inserting.
+     * @param username The Username to check.
+     * @return true if a Person with the Username exists, false otherwise.
+     */
+    public boolean isTaken(String username) {
+        if (!enabled || username == null)
+            return false;
+
+        if (!mightBeTaken(username)) {
+            missCounter.increment();
+            return false;
+        }
+
+        boolean taken = personRepository.existsByUsername(username);
+        (taken ? hitCounter : falsePositiveCounter).increment();
+        return taken;
+    }
+    //endregion
+
+    //region Maintenance
+    /**
+     * Adds the Username of a created or renamed Person.
+     *
+     * @param username The new Username.
+     */
+    public void add(String username) {
+        if (!enabled || username == null)
+            return;
+
+        BloomFilter current = this.filter;
+        if (current != null)
+            current.put(username);
+        BloomFilter next = this.rebuilding;
+        if (next != null)
+            next.put(username);
+        entries.incrementAndGet();
+    }
+
+    /**
+     * Adds the new Username of a renamed Person and counts its old Username as stale.
+     * <br/>
+     * NOTE: The old Username is not always known (e.g. when a Person is updated by its ID without loading it).
+     *       A Username the Filter already contains is therefore treated as unchanged and ignored.
+     *       If it was a False Positive instead, only one stale Entry is not counted.
+     *
+     * @param username The new Username.
+     */
+    public void rename(String username) {
+        if (!enabled || username == null || mightBeTaken(username))
+            return;
+
+        add(username);
+        markStale(1);
+    }
+
+    /**
+     * Records that Usernames are no longer used (because their Persons were deleted or renamed).
+     *
+     * @param count The Number of Usernames that are no longer used.
+     */
+    public void markStale(long count) {
+        if (enabled && count > 0)
+            staleEntries.addAndGet(count);
+    }
+
+    /**
+     * Rebuilds the Filter if too many of its Entries are stale.
+     */
+    public void rebuildIfStale() {
+        if (enabled && staleEntries.get() > rebuildStaleRatio * Math.max(1, entries.get()))
+            rebuild();
+    }
+
+    /**
+     * Rebuilds the Filter from the Usernames stored in the Database.
+     * The Filter is sized for twice the current Number of Persons (but at least "swa.persons.username-filter.expected-insertions").
+     */
+    public synchronized void rebuild() {
+        long stale = staleEntries.get();
+        long entriesBefore = entries.get();
+        long persons = personRepository.count();
+        BloomFilter next = new BloomFilter(Math.max(expectedInsertions, persons * 2), falsePositiveProbability);
+        this.rebuilding = next;
+        try {
+            long[] added = {0};
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<String> usernames = personRepository.streamAllUsernames()) {
+                    usernames.forEach(username -> {
+                        next.put(username);
+                        added[0]++;
+                    });
+                }
+            });
+            this.filter = next;
+            // NOTE: Usernames added or stale during the Rebuild might still be in the new Filter,
+            //       so only the Entries counted before the Rebuild are replaced.
+            this.entries.addAndGet(added[0] - entriesBefore);
+            this.staleEntries.addAndGet(-stale);
+            log.debug("Rebuilt Username Filter with {} Usernames ({} Bytes)", added[0], next.memoryBytes());
+        } finally {
+            this.rebuilding = null;
+        }
+    }
+    //endregion
+}
@@ -1,8 +1,7 @@
 package at.ac.uibk.swa.util;
 
 import at.ac.uibk.swa.config.jwt_authentication.JwtToken;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import at.ac.uibk.swa.config.jwt_authentication.JwtTokenParser;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
@@ -44,16 +43,14 @@ public class ConversionUtil {
 
     /**
      * Helper Method for parsing a JSON Web Token from a String.
+     * This is called for every authenticated Request, so it uses the allocation-free {@link JwtTokenParser}
+     * instead of an ObjectMapper.
      *
      * @param input The input to parse into a {@link JwtToken}.
      * @return The parsed {@link JwtToken}, or null if the parsing failed.
      */
     public static JwtToken tryConvertJwtToken(String input) {
-        try {
-            return new ObjectMapper().readValue(input, JwtToken.class);
-        } catch (JsonProcessingException e) {
-            return null;
-        }
+        return JwtTokenParser.parse(input);
     }
 
     /**
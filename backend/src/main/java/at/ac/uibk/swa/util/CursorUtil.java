@@ -0,0 +1,53 @@
+package at.ac.uibk.swa.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Helper Class for the opaque Cursors of keyset-paginated Endpoints.
+ * <br/>
+ * A Cursor stores the Sort Key of the last Item of a Page, so the next Page can continue right after it
+ * ("WHERE key > :last ORDER BY key LIMIT :size") instead of skipping all previous Rows with an OFFSET.
+ * The Name of the Ordering is stored alongside, so a Cursor cannot be used with a different Ordering.
+ */
+// All your Constructors are belong to us!
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class CursorUtil {
+
+    private static final char SEPARATOR = ':';
+
+    /**
+     * Creates the Cursor pointing after the given Sort Key.
+     *
+     * @param ordering The Name of the Ordering the Key belongs to.
+     * @param key The Sort Key of the last Item of the current Page.
+     * @return The URL-safe Cursor.
+     */
+    public static String encode(String ordering, String key) {
+        byte[] cursor = (ordering + SEPARATOR + key).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor);
+    }
+
+    /**
+     * Reads the Sort Key from a Cursor without throwing an Exception.
+     *
+     * @param ordering The Name of the Ordering the Cursor must belong to.
+     * @param cursor The Cursor sent by the Client.
+     * @return The Sort Key, or empty if the Cursor is malformed or belongs to a different Ordering.
+     */
+    public static Optional<String> tryDecode(String ordering, String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            if (separator < 0 || !decoded.regionMatches(0, ordering, 0, separator) || separator != ordering.length())
+                return Optional.empty();
+            return Optional.of(decoded.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -1,17 +1,24 @@
 package at.ac.uibk.swa.util;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.web.util.matcher.*;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.stereotype.Component;
+import org.springframework.web.util.UrlPathHelper;
 
 import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Helper Class for keeping track of the Endpoints and their respective required {@link at.ac.uibk.swa.models.Permission}s.
+ * <br/>
+ * The Request Matchers are built once on Startup and match the decoded Request Path (see {@link #getRequestPath}) using simple Prefix and Set Lookups.
  *
  * @author David Rieser
  */
@@ -73,58 +80,158 @@ public class EndpointMatcherUtil {
     //endregion
     //endregion
 
+    //region Precompiled Matchers
+    // NOTE: All Matchers are built once after the Properties were injected and never change afterwards.
+    private Set<String> errorRoutes;
+    private Set<String> publicRoutes;
+
+    private RequestMatcher apiRouteRequestMatcher;
+    private RequestMatcher adminRouteRequestMatcher;
+    private RequestMatcher[] errorRouteRequestMatchers;
+    private RequestMatcher publicRouteRequestMatcher;
+    private RequestMatcher protectedApiRequestMatcher;
+    private RequestMatcher protectedRouteRequestMatcher;
+
+    @PostConstruct
+    private void buildMatchers() {
+        this.errorRoutes = Arrays.stream(this.errorEndpoints)
+                .map(this::toApiEndpoint)
+                .collect(Collectors.toUnmodifiableSet());
+        this.publicRoutes = Set.of(
+                this.toApiEndpoint(this.apiLoginEndpoint),
+                // NOTE: DON'T ADD THE LOGOUT-ENDPOINT TO PUBLIC ROUTES.
+                //       THE LOGOUT IS DONE USING THE TOKEN FROM THE REQUEST.
+                // this.toApiEndpoint(this.apiLogoutEndpoint),
+                this.toApiEndpoint(this.apiRegisterEndpoint)
+        );
+
+        this.apiRouteRequestMatcher = this::isApiRoute;
+        this.adminRouteRequestMatcher = this::isAdminRoute;
+        this.errorRouteRequestMatchers = this.errorRoutes.stream()
+                .map(route -> (RequestMatcher) request -> route.equals(getRequestPath(request)))
+                .toArray(RequestMatcher[]::new);
+        this.publicRouteRequestMatcher = this::isPublicRoute;
+        this.protectedApiRequestMatcher = request -> {
+            String path = getRequestPath(request);
+            return isUnderBaseRoute(path, this.apiBaseRoute) && !this.publicRoutes.contains(path);
+        };
+        this.protectedRouteRequestMatcher = request -> {
+            String path = getRequestPath(request);
+            return (isUnderBaseRoute(path, this.apiBaseRoute) || isUnderBaseRoute(path, this.adminBaseRoute))
+                    && !this.publicRoutes.contains(path);
+        };
+    }
+    //endregion
+
     //region Route Matchers
     public RequestMatcher getApiRouteRequestMatcher() {
-        return new AntPathRequestMatcher(this.apiBaseRoute + "/**");
+        return this.apiRouteRequestMatcher;
     }
     public RequestMatcher getAdminRouteRequestMatcher() {
-        return new AntPathRequestMatcher(this.adminBaseRoute + "/**");
+        return this.adminRouteRequestMatcher;
     }
 
     public RequestMatcher[] getErrorRouteRequestMatchers() {
-        return Arrays.stream(this.errorEndpoints)
-                .map(route -> apiBaseRoute + route)
-                .map(AntPathRequestMatcher::new)
-                .toArray(RequestMatcher[]::new);
+        // NOTE: Arrays are mutable, so hand out a Copy.
+        return this.errorRouteRequestMatchers.clone();
     }
 
     public RequestMatcher getPublicRouteRequestMatcher() {
-        return new OrRequestMatcher(
-                new AntPathRequestMatcher("/api/login"),
-                // NOTE: DON'T ADD THE LOGOUT-ENDPOINT TO PUBLIC ROUTES.
-                //       THE LOGOUT IS DONE USING THE TOKEN FROM THE REQUEST.
-                // new AntPathRequestMatcher(this.apiLogoutEndpoint),
-                new AntPathRequestMatcher(this.apiRegisterEndpoint)
-        );
+        return this.publicRouteRequestMatcher;
     }
 
     public RequestMatcher getProtectedApiRequestMatcher() {
-        return new AndRequestMatcher(
-            this.getApiRouteRequestMatcher(),
-                new NegatedRequestMatcher(this.getPublicRouteRequestMatcher())
-        );
+        return this.protectedApiRequestMatcher;
     }
 
     public RequestMatcher getProtectedRouteRequestMatcher() {
-        return new AndRequestMatcher(
-                new OrRequestMatcher(this.getApiRouteRequestMatcher(), this.getAdminRouteRequestMatcher()),
-                new NegatedRequestMatcher(this.getPublicRouteRequestMatcher())
-        );
+        return this.protectedRouteRequestMatcher;
     }
     //endregion
 
+    //region Fast Matching API
+    /**
+     * Gets the decoded Path of the Request within the Application (the same Path the Request is routed by).
+     * <br/>
+     * NOTE: The raw Request URI must not be used here, because it is still percent-encoded:
+     *       "/%61pi/..." would not match "/api/**", but it is still dispatched to "/api/...".
+     *
+     * @param request The Request to get the Path of.
+     * @return The Path of the Request within the Application.
+     */
+    public static String getRequestPath(HttpServletRequest request) {
+        // The Servlet Path and Path Info are already decoded by the Servlet Container.
+        String servletPath = request.getServletPath();
+        String pathInfo = request.getPathInfo();
+        String path = pathInfo == null ? servletPath : Objects.requireNonNullElse(servletPath, "") + pathInfo;
+        if (path != null && !path.isEmpty())
+            return path;
+
+        // Requests that were not dispatched through a Servlet Mapping (yet) only have a Request URI, so decode it.
+        return UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+    }
+
+    /**
+     * Checks whether the Path is the Base Route itself or any Route below it
+     * (equivalent to the Ant-Pattern "&lt;baseRoute&gt;/**").
+     *
+     * @param path The Path within the Application.
+     * @param baseRoute The Base Route (e.g. "/api").
+     * @return true if the Path starts with the Base Route, false otherwise.
+     */
+    public static boolean isUnderBaseRoute(String path, String baseRoute) {
+        if (!path.startsWith(baseRoute))
+            return false;
+        return path.length() == baseRoute.length()
+                || baseRoute.endsWith("/")
+                || path.charAt(baseRoute.length()) == '/';
+    }
+
+    public boolean isApiRoute(String path) {
+        return isUnderBaseRoute(path, this.apiBaseRoute);
+    }
+    public boolean isAdminRoute(String path) {
+        return isUnderBaseRoute(path, this.adminBaseRoute);
+    }
+    public boolean isErrorRoute(String path) {
+        return this.errorRoutes.contains(path);
+    }
+    public boolean isPublicRoute(String path) {
+        return this.publicRoutes.contains(path);
+    }
+
     public boolean isApiRoute(HttpServletRequest request) {
-        return this.getApiRouteRequestMatcher().matches(request);
+        return isApiRoute(getRequestPath(request));
     }
     public boolean isAdminRoute(HttpServletRequest request) {
-        return this.getApiRouteRequestMatcher().matches(request);
+        return isAdminRoute(getRequestPath(request));
+    }
+    public boolean isErrorRoute(HttpServletRequest request) {
+        return isErrorRoute(getRequestPath(request));
+    }
+    public boolean isPublicRoute(HttpServletRequest request) {
+        return isPublicRoute(getRequestPath(request));
     }
+    //endregion
 
     public String toApiEndpoint(String route) {
-        return String.format("%s/%s", this.apiBaseRoute, route);
+        return joinRoute(this.apiBaseRoute, route);
     }
 
     public String toAdminEndpoint(String route) {
-        return String.format("%s/%s", this.adminBaseRoute, route);
+        return joinRoute(this.adminBaseRoute, route);
+    }
+
+    /**
+     * Appends the Route to the Base Route with exactly one Slash in between.
+     */
+    private static String joinRoute(String baseRoute, String route) {
+        boolean baseHasSlash = baseRoute.endsWith("/");
+        boolean routeHasSlash = route.startsWith("/");
+        if (baseHasSlash && routeHasSlash)
+            return baseRoute + route.substring(1);
+        if (baseHasSlash || routeHasSlash)
+            return baseRoute + route;
+        return baseRoute + "/" + route;
     }
 }
@@ -1,25 +1,46 @@
 package at.ac.uibk.swa.util;
 
-import lombok.AccessLevel;
-import lombok.NoArgsConstructor;
+import at.ac.uibk.swa.service.SessionPurgeService;
+import at.ac.uibk.swa.service.UsernameFilterService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
-
-import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
 
 /**
  * Helper Class storing all scheduled Jobs.
  * <br>
  * See <a href="https://docs.spring.io/spring-framework/docs/current/reference/html/integration.html#scheduling">Spring Docs about Scheduling</a>
  */
-// All your Constructors are belong to us!
+@Component
 @EnableScheduling
-@NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class SchedulerUtil {
-    /*
-    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.DAYS)
-    public void doSomethingEveryDay() {
-        return;
+
+    @Autowired
+    private SessionPurgeService sessionPurgeService;
+
+    @Autowired
+    private UsernameFilterService usernameFilterService;
+
+    /**
+     * Deletes the expired Sessions every "swa.token.purge.interval".
+     */
+    @Scheduled(
+            fixedDelayString = "${swa.token.purge.interval:PT5M}",
+            initialDelayString = "${swa.token.purge.interval:PT5M}"
+    )
+    public void purgeExpiredSessions() {
+        sessionPurgeService.purgeExpiredSessions();
     }
+
+    /**
+     * Rebuilds the Username Filter every "swa.persons.username-filter.rebuild-interval" if too many of its Entries are stale.
      */
+    @Scheduled(
+            fixedDelayString = "${swa.persons.username-filter.rebuild-interval:PT10M}",
+            initialDelayString = "${swa.persons.username-filter.rebuild-interval:PT10M}"
+    )
+    public void rebuildUsernameFilter() {
+        usernameFilterService.rebuildIfStale();
+    }
 }
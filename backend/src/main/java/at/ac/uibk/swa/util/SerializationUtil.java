@@ -1,15 +1,47 @@
 package at.ac.uibk.swa.util;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.StreamWriteFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Helper Class for serializing Objects to JSON.
+ * <br/>
+ * All Methods share a single, process-wide {@link ObjectMapper}, so the (expensive) Serializers are only built once
+ * and Jackson can recycle its internal Buffers between Calls.
+ * The Output is compact unless Pretty-Printing was enabled (only done in the Dev-Profile, see "swa.json.pretty-print").
+ */
 // All your Constructors are belong to us!
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class SerializationUtil {
 
+    // NOTE: The Stream belongs to the Caller (e.g. the Servlet Container), so Jackson must not close it.
+    // NOTE: Values written to a Generator one after another are flushed together (see createJSONGenerator).
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+            .build();
+
+    private static volatile ObjectWriter writer = MAPPER.writer();
+
+    /**
+     * Enables or disables indenting the serialized JSON.
+     *
+     * @param prettyPrint true to indent the Output, false for compact Output.
+     */
+    public static void setPrettyPrint(boolean prettyPrint) {
+        writer = prettyPrint ? MAPPER.writerWithDefaultPrettyPrinter() : MAPPER.writer();
+    }
+
     /**
      * Convert a dynamic Object into it's String Representation using Jackson.
      *
@@ -18,11 +50,61 @@ public class SerializationUtil {
      */
     public static String serializeJSON(Object o) {
         try {
-            return new ObjectMapper()
-                    .enable(SerializationFeature.INDENT_OUTPUT)
-                    .writeValueAsString(o);
+            return writer.writeValueAsString(o);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Convert a dynamic Object into it's UTF-8 encoded JSON Representation using Jackson.
+     *
+     * @param o The Object to convert
+     * @return The serialized Representation of the Object (or null if an Error occurred).
+     */
+    public static byte[] serializeJSONBytes(Object o) {
+        try {
+            return writer.writeValueAsBytes(o);
         } catch (JsonProcessingException e) {
             return null;
         }
     }
+
+    /**
+     * Writes the UTF-8 encoded JSON Representation of a dynamic Object directly to the given Stream,
+     * without building the whole Representation in Memory first.
+     *
+     * @param outputStream The Stream to write to (it is flushed, but not closed).
+     * @param o The Object to convert
+     * @throws IOException If the Object could not be serialized or the Stream could not be written to.
+     */
+    public static void writeJSON(OutputStream outputStream, Object o) throws IOException {
+        writer.writeValue(outputStream, o);
+    }
+
+    //region Streaming
+    /**
+     * Creates a Generator for writing JSON piece by piece (e.g. the Items of a large List as they are loaded).
+     * The Generator buffers its Output and only writes to the Stream once its Buffer is full or it is flushed/closed.
+     *
+     * @param outputStream The Stream to write to (it is not closed together with the Generator).
+     * @param compact true to never indent the Output (e.g. for Newline-delimited JSON), false to use the configured Format.
+     * @return A new Generator.
+     * @throws IOException If the Generator could not be created.
+     */
+    public static JsonGenerator createJSONGenerator(OutputStream outputStream, boolean compact) throws IOException {
+        return (compact ? MAPPER.writer() : writer).createGenerator(outputStream);
+    }
+
+    /**
+     * Writes the JSON Representation of a dynamic Object as the next Value of the given Generator.
+     *
+     * @param generator The Generator to write to.
+     * @param o The Object to convert
+     * @throws IOException If the Object could not be serialized or the Generator could not be written to.
+     */
+    public static void writeJSON(JsonGenerator generator, Object o) throws IOException {
+        MAPPER.writeValue(generator, o);
+    }
+    //endregion
 }
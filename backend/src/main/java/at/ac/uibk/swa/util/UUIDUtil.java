@@ -0,0 +1,93 @@
+package at.ac.uibk.swa.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.UUID;
+
+/**
+ * Helper Class for creating time-ordered UUIDs and converting UUIDs to their binary Form.
+ * <br/>
+ * Random (Version 4) UUIDs are inserted at random Positions of a B-Tree Index,
+ * time-ordered (Version 7) UUIDs are (mostly) appended at its End, which keeps the Index compact.
+ *
+ * @see <a href="https://www.rfc-editor.org/rfc/rfc9562#name-uuid-version-7">RFC 9562 - UUID Version 7</a>
+ */
+// All your Constructors are belong to us!
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class UUIDUtil {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * Creates a Version 7 UUID, consisting of the current Unix Time in Milliseconds followed by 74 random Bits.
+     *
+     * @implNote The random Bits come from a {@link SecureRandom}, so the UUIDs can also be used as Session Tokens.
+     * @return A new time-ordered UUID.
+     */
+    public static UUID randomTimeOrderedUUID() {
+        byte[] random = new byte[10];
+        RANDOM.nextBytes(random);
+        ByteBuffer randomBits = ByteBuffer.wrap(random);
+
+        long timestamp = System.currentTimeMillis() & 0xFFFF_FFFF_FFFFL;
+        long randA = randomBits.getShort() & 0x0FFFL;
+        long randB = randomBits.getLong() & 0x3FFF_FFFF_FFFF_FFFFL;
+
+        long mostSignificant = (timestamp << 16) | (0x7L << 12) | randA;
+        long leastSignificant = (0x2L << 62) | randB;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    /**
+     * Converts the UUID into the 16 Bytes that are stored in a BINARY(16) Column.
+     *
+     * @param uuid The UUID to convert.
+     * @return The Big-Endian Bytes of the UUID, or null if the UUID is null.
+     */
+    public static byte[] toBytes(UUID uuid) {
+        if (uuid == null)
+            return null;
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    /**
+     * Converts the Bytes of a BINARY(16) Column back into a UUID.
+     *
+     * @param bytes The Big-Endian Bytes of the UUID.
+     * @return The UUID, or null if the Bytes are not a valid UUID.
+     */
+    public static UUID fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != 16)
+            return null;
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * Binds the UUID to a Statement the same Way Hibernate stores it (see "swa.uuid.jdbc-type").
+     *
+     * @param statement The Statement to bind the UUID to.
+     * @param index The Index of the Parameter.
+     * @param uuid The UUID to bind (may be null).
+     * @param jdbcType The configured Column Type of UUIDs ("BINARY" or "NVARCHAR").
+     * @throws SQLException If the Parameter could not be bound.
+     */
+    public static void bindUUID(PreparedStatement statement, int index, UUID uuid, String jdbcType) throws SQLException {
+        boolean binary = "BINARY".equalsIgnoreCase(jdbcType);
+        if (uuid == null)
+            statement.setNull(index, binary ? Types.BINARY : Types.NVARCHAR);
+        else if (binary)
+            statement.setBytes(index, toBytes(uuid));
+        else
+            statement.setString(index, uuid.toString());
+    }
+}
@@ -0,0 +1,198 @@
+package at.ac.uibk.swa.util.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Bounded, concurrent Key-Value Store whose Entries expire after a fixed Time-To-Live.
+ * <br/>
+ * Expired Entries are dropped lazily when they are accessed and whenever the Cache grows over its maximum Size.
+ * If the Cache is still too large after dropping all expired Entries, arbitrary Entries are evicted.
+ * Exact LRU-Ordering would need a global Lock, which is not worth it for short-lived Lookups.
+ *
+ * @param <K> The Type of the Keys.
+ * @param <V> The Type of the cached Values.
+ * @see ExpiringCacheMetrics
+ */
+public class ExpiringCache<K, V> {
+
+    private record Entry<T>(T value, long expiresAt) {
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean(false);
+
+    private final long maxSize;
+    private final long timeToLiveNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a new, empty Cache.
+     *
+     * @param maxSize The maximum Number of Entries the Cache should hold.
+     * @param timeToLive How long an Entry stays valid after it was inserted.
+     */
+    public ExpiringCache(long maxSize, Duration timeToLive) {
+        if (maxSize <= 0)
+            throw new IllegalArgumentException("The maximum Size of a Cache must be positive!");
+        this.maxSize = maxSize;
+        this.timeToLiveNanos = timeToLive.toNanos();
+    }
+
+    //region Lookup
+    /**
+     * Gets the Value stored for the given Key.
+     *
+     * @param key The Key to look up.
+     * @return The cached Value, or empty if there is none or it already expired.
+     */
+    public Optional<V> get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        if (entry.isExpired(System.nanoTime())) {
+            // Only remove the Entry if it was not replaced in the meantime.
+            if (entries.remove(key, entry))
+                evictions.increment();
+            misses.increment();
+            return Optional.empty();
+        }
+
+        hits.increment();
+        return Optional.of(entry.value());
+    }
+
+    /**
+     * Checks whether a non-expired Value is stored for the given Key.
+     *
+     * @param key The Key to look up.
+     * @return true if the Key is cached, false otherwise.
+     */
+    public boolean contains(K key) {
+        return get(key).isPresent();
+    }
+    //endregion
+
+    //region Insertion
+    /**
+     * Stores the given Value, replacing any previous Value of the Key.
+     *
+     * @param key The Key to store the Value under.
+     * @param value The Value to cache.
+     */
+    public void put(K key, V value) {
+        entries.put(key, new Entry<>(value, System.nanoTime() + timeToLiveNanos));
+        puts.increment();
+
+        if (entries.size() > maxSize)
+            evict();
+    }
+
+    /**
+     * Drops expired Entries and, if that is not enough, arbitrary Entries until the Cache fits its maximum Size again.
+     *
+     * @implNote Only one Thread evicts at a time, other Threads may temporarily push the Cache over its Size.
+     */
+    private void evict() {
+        if (!evicting.compareAndSet(false, true))
+            return;
+
+        try {
+            long now = System.nanoTime();
+            entries.values().removeIf(entry -> {
+                boolean expired = entry.isExpired(now);
+                if (expired) evictions.increment();
+                return expired;
+            });
+
+            Iterator<K> keys = entries.keySet().iterator();
+            while (entries.size() > maxSize && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+                evictions.increment();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+    //endregion
+
+    //region Invalidation
+    /**
+     * Removes the Value stored for the given Key.
+     *
+     * @param key The Key whose Value should be removed.
+     */
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes the given Key only if it is currently mapped to the given Value.
+     *
+     * @param key The Key whose Value should be removed.
+     * @param value The Value the Key needs to be mapped to.
+     */
+    public void invalidate(K key, V value) {
+        entries.computeIfPresent(key, (k, entry) -> entry.value() == value ? null : entry);
+    }
+
+    /**
+     * Removes all Values that match the given Predicate.
+     *
+     * @implNote This walks the whole Cache, so only use it for rare Operations.
+     * @param predicate The Predicate selecting the Values to remove.
+     */
+    public void invalidateIf(Predicate<V> predicate) {
+        entries.values().removeIf(entry -> predicate.test(entry.value()));
+    }
+
+    /**
+     * Removes all Values from the Cache.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+    //endregion
+
+    //region Statistics
+    public long size() {
+        return entries.size();
+    }
+
+    public long maxSize() {
+        return maxSize;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long putCount() {
+        return puts.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+    //endregion
+}
@@ -0,0 +1,67 @@
+package at.ac.uibk.swa.util.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Exposes the Statistics of an {@link ExpiringCache} through the Actuator (as "cache.gets", "cache.puts", ...).
+ *
+ * @see CacheMeterBinder
+ */
+public class ExpiringCacheMetrics extends CacheMeterBinder<ExpiringCache<?, ?>> {
+
+    public ExpiringCacheMetrics(ExpiringCache<?, ?> cache, String cacheName, Iterable<Tag> tags) {
+        super(cache, cacheName, tags);
+    }
+
+    /**
+     * Registers the Metrics of the given Cache with the given Registry.
+     *
+     * @param registry The Registry to publish the Metrics to.
+     * @param cache The Cache to monitor.
+     * @param cacheName The Name of the Cache (used as the "cache"-Tag).
+     * @param tags Additional Key-Value Pairs to tag the Metrics with.
+     * @return The monitored Cache.
+     */
+    public static <C extends ExpiringCache<?, ?>> C monitor(MeterRegistry registry, C cache, String cacheName, String... tags) {
+        new ExpiringCacheMetrics(cache, cacheName, Tags.of(tags)).bindTo(registry);
+        return cache;
+    }
+
+    @Override
+    protected Long size() {
+        ExpiringCache<?, ?> cache = getCache();
+        return cache == null ? null : cache.size();
+    }
+
+    @Override
+    protected long hitCount() {
+        ExpiringCache<?, ?> cache = getCache();
+        return cache == null ? 0 : cache.hitCount();
+    }
+
+    @Override
+    protected Long missCount() {
+        ExpiringCache<?, ?> cache = getCache();
+        return cache == null ? null : cache.missCount();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        ExpiringCache<?, ?> cache = getCache();
+        return cache == null ? null : cache.evictionCount();
+    }
+
+    @Override
+    protected long putCount() {
+        ExpiringCache<?, ?> cache = getCache();
+        return cache == null ? 0 : cache.putCount();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        // All relevant Statistics are covered by the generic Cache Metrics.
+    }
+}
@@ -0,0 +1,147 @@
+package at.ac.uibk.swa.util.concurrent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom Filter for Strings.
+ * <br/>
+ * A Filter can tell for sure that a String was never added ("definite Miss"),
+ * but may wrongly claim that a String was added with the configured False Positive Probability.
+ * Strings cannot be removed, so Filters of changing Sets have to be rebuilt from time to time.
+ * <br/>
+ * All Bits are stored in an {@link AtomicLongArray}, so adding and checking never block each other.
+ * The Bit Positions are derived from a single 64-bit Hash using Double Hashing (Kirsch-Mitzenmacher).
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashFunctions;
+
+    /**
+     * Creates an empty Filter sized for the given Number of Strings.
+     *
+     * @param expectedInsertions The Number of Strings the Filter is expected to hold.
+     * @param falsePositiveProbability The Probability of a False Positive once the expected Number of Strings was added.
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions <= 0 || falsePositiveProbability <= 0 || falsePositiveProbability >= 1)
+            throw new IllegalArgumentException("The expected Insertions must be positive and the Probability must be between 0 and 1!");
+
+        // NOTE: Optimal Sizes, see https://en.wikipedia.org/wiki/Bloom_filter#Optimal_number_of_hash_functions
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitSize = (long) wordCount * 64;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+    }
+
+    //region Adding/Checking
+    /**
+     * Adds the given String to the Filter.
+     *
+     * @param value The String to add.
+     */
+    public void put(String value) {
+        long hash = hash(value);
+        // NOTE: The Step must not be 0, otherwise all Hash Functions would set the same Bit.
+        long step = (hash >>> 32) | 1;
+        for (int i = 1; i <= hashFunctions; i++)
+            setBit(index(hash + i * step));
+    }
+
+    /**
+     * Checks whether the given String might have been added to the Filter.
+     *
+     * @param value The String to check.
+     * @return false if the String was definitely never added, true if it might have been.
+     */
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        long step = (hash >>> 32) | 1;
+        for (int i = 1; i <= hashFunctions; i++) {
+            if (!isBitSet(index(hash + i * step)))
+                return false;
+        }
+        return true;
+    }
+
+    private long index(long combinedHash) {
+        return (combinedHash & Long.MAX_VALUE) % bitSize;
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = words.get(word);
+            if ((current & mask) != 0)
+                return;
+        } while (!words.compareAndSet(word, current, current | mask));
+    }
+
+    private boolean isBitSet(long index) {
+        return (words.get((int) (index >>> 6)) & (1L << index)) != 0;
+    }
+
+    /**
+     * Hashes the UTF-8 Bytes of the given String with FNV-1a
+     * and spreads the Result with the 64-bit Finalizer of MurmurHash3, so all Bits of the Hash are usable.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8))
+            hash = (hash ^ b) * 0x100000001b3L;
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+    //endregion
+
+    //region Statistics
+    public long bitSize() {
+        return bitSize;
+    }
+
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    /**
+     * Gets the Size of the Bit Array.
+     *
+     * @return The Number of Bytes used for the Bits.
+     */
+    public long memoryBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    /**
+     * Counts the Bits that are set.
+     *
+     * @implNote This walks the whole Bit Array, so only call it occasionally (e.g. when Metrics are scraped).
+     * @return The Number of set Bits.
+     */
+    public long bitCount() {
+        long count = 0;
+        for (int i = 0; i < words.length(); i++)
+            count += Long.bitCount(words.get(i));
+        return count;
+    }
+
+    /**
+     * Estimates the current False Positive Probability from the Fraction of set Bits.
+     *
+     * @return The Probability that a String that was never added is reported as contained.
+     */
+    public double expectedFalsePositiveProbability() {
+        return Math.pow((double) bitCount() / bitSize, hashFunctions);
+    }
+    //endregion
+}
@@ -0,0 +1,240 @@
+package at.ac.uibk.swa.util.concurrent;
+
+import at.ac.uibk.swa.models.exceptions.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Separately sized Thread Pool for CPU-heavy Password Hashing (e.g. BCrypt).
+ * <br/>
+ * Hashing on the Request Threads lets a Burst of Logins occupy every Worker Thread,
+ * so cheap Requests have to wait. Instead, Hashes are computed on this Pool, whose Queue is bounded.
+ * If the Pool is saturated, the Task is rejected right away with a {@link ServiceOverloadedException}.
+ * <br/>
+ * The Time Tasks spend in the Queue ("password_hashing.queue_wait") and computing the Hash ("password_hashing.duration")
+ * is recorded per Pool, next to the generic Executor Metrics.
+ */
+public class PasswordHashingExecutor {
+
+    private final String name;
+    private final Duration retryAfter;
+    private final ThreadPoolExecutor executor;
+    /**
+     * Free Places in the Queue for the Tasks of {@link #forEach}, shared by all Batches running on this Pool.
+     */
+    private final Semaphore batchSlots;
+
+    private final Timer queueWaitTimer;
+    private final Timer hashTimer;
+    private final Counter rejectedCounter;
+
+    /**
+     * Creates a new Pool.
+     *
+     * @param name The Name of the Pool (used for the Thread Names and the "pool"-Tag of the Metrics).
+     * @param threads The Number of Threads hashing concurrently.
+     * @param queueCapacity How many Tasks may wait for a Thread before new Tasks are rejected.
+     * @param retryAfter The Time Clients should wait before retrying a rejected Request.
+     * @param registry The Registry to publish the Metrics to.
+     */
+    public PasswordHashingExecutor(String name, int threads, int queueCapacity, Duration retryAfter, MeterRegistry registry) {
+        this.name = name;
+        this.retryAfter = retryAfter;
+        this.batchSlots = new Semaphore(queueCapacity);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        Tags tags = Tags.of("pool", name);
+        this.queueWaitTimer = Timer.builder("password_hashing.queue_wait")
+                .description("Time a Hashing Task waited for a Thread")
+                .tags(tags)
+                .register(registry);
+        this.hashTimer = Timer.builder("password_hashing.duration")
+                .description("Time needed to compute a Hash")
+                .tags(tags)
+                .register(registry);
+        this.rejectedCounter = Counter.builder("password_hashing.rejected")
+                .description("Number of Hashing Tasks rejected because the Pool was saturated")
+                .tags(tags)
+                .register(registry);
+        new ExecutorServiceMetrics(executor, name, Tags.empty()).bindTo(registry);
+    }
+
+    /**
+     * Runs the given Task on the Pool and waits for its Result.
+     *
+     * @param task The Hashing Task.
+     * @return The Result of the Task.
+     * @throws ServiceOverloadedException If the Pool is saturated.
+     */
+    public <T> T execute(Supplier<T> task) throws ServiceOverloadedException {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return task.get();
+                } finally {
+                    hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new ServiceOverloadedException(String.format("Password Hashing Pool \"%s\" is saturated!", name), retryAfter);
+        }
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            if (e.getCause() instanceof Error error)
+                throw error;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the Password Hash", e);
+        }
+    }
+
+    /**
+     * Runs the given Task on the Pool and waits for it to finish.
+     *
+     * @param task The Hashing Task.
+     * @throws ServiceOverloadedException If the Pool is saturated.
+     */
+    public void run(Runnable task) throws ServiceOverloadedException {
+        execute(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the given Task on the Pool without waiting for it.
+     * Use this for optional Background Work, which should simply be skipped if the Pool is busy.
+     *
+     * @implNote Background Tasks may only fill half of the Queue, so they never cause Requests to be rejected.
+     * @param task The Hashing Task.
+     * @return true if the Task was queued, false if the Pool is busy.
+     */
+    public boolean trySubmit(Runnable task) {
+        BlockingQueue<Runnable> queue = executor.getQueue();
+        if (queue.size() > queue.remainingCapacity())
+            return false;
+
+        long submittedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    task.run();
+                } finally {
+                    hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Runs the given Task for every Item on the Pool and waits for all of them to finish.
+     * Use this for large Batches (e.g. creating many Users at once), which would otherwise overflow the Queue.
+     *
+     * @implNote Every queued Task holds one of the Queue Capacity Slots, which is freed as soon as a Thread takes the Task
+     *           from the Queue. The Caller waits for a free Slot before submitting, so the Batch is throttled instead of rejected.
+     *           Only use this on a Pool dedicated to Batches, as it keeps the Pool saturated until the Batch is done.
+     * @param items The Items to process.
+     * @param task The Hashing Task for a single Item.
+     * @throws ServiceOverloadedException If the Pool still rejected a Task (e.g. because it is shutting down).
+     */
+    public <T> void forEach(Collection<T> items, Consumer<T> task) throws ServiceOverloadedException {
+        List<Future<?>> futures = new ArrayList<>(items.size());
+        try {
+            for (T item : items) {
+                batchSlots.acquire();
+                long submittedAt = System.nanoTime();
+                FutureTask<Void> future = new FutureTask<>(() -> {
+                    long startedAt = System.nanoTime();
+                    queueWaitTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                    try {
+                        task.accept(item);
+                    } finally {
+                        hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                    }
+                }, null);
+
+                try {
+                    // NOTE: The Slot is freed outside the FutureTask, so it is also freed if the Task was cancelled while queued.
+                    executor.execute(() -> {
+                        batchSlots.release();
+                        future.run();
+                    });
+                } catch (RejectedExecutionException e) {
+                    batchSlots.release();
+                    rejectedCounter.increment();
+                    throw new ServiceOverloadedException(String.format("Password Hashing Pool \"%s\" is saturated!", name), retryAfter);
+                }
+                futures.add(future);
+            }
+
+            for (Future<?> future : futures)
+                future.get();
+        } catch (ServiceOverloadedException e) {
+            futures.forEach(future -> future.cancel(false));
+            throw e;
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(false));
+            if (e.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            if (e.getCause() instanceof Error error)
+                throw error;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the Password Hashes", e);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Stops the Pool after the already queued Tasks are done (called by Spring on Shutdown).
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
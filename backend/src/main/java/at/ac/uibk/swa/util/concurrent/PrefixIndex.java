@@ -0,0 +1,162 @@
+package at.ac.uibk.swa.util.concurrent;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Thread-safe Index for finding Values by the Prefix of one of their Terms (e.g. Username or Email).
+ * <br/>
+ * All Terms are kept in a {@link ConcurrentSkipListMap} sorted by the lowercase Term,
+ * so a Prefix Query is a single Seek to the first matching Term followed by reading the next Entries in Order.
+ * Its Cost only depends on the Number of Results, not on the Number of indexed Values.
+ * <br/>
+ * Every Value is identified by an ID, so putting a Value again replaces its previous Terms.
+ */
+public class PrefixIndex<I, V> {
+
+    /**
+     * Sort Key of a single Term. Equal Terms of different Values are told apart by a unique Sequence Number.
+     */
+    private record Key(String term, long sequence) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int result = this.term.compareTo(other.term);
+            return result != 0 ? result : Long.compare(this.sequence, other.sequence);
+        }
+    }
+
+    private record Entry<V>(V value, Key[] keys) { }
+
+    private final ConcurrentSkipListMap<Key, I> terms = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<I, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    //region Modification
+    /**
+     * Adds a Value or replaces the Value and Terms stored for the same ID.
+     *
+     * @param id The ID of the Value.
+     * @param value The Value returned by Queries.
+     * @param terms The Terms the Value can be found by (null Terms are ignored).
+     */
+    public void put(I id, V value, String... terms) {
+        Key[] keys = keys(terms);
+
+        // NOTE: compute() locks the ID, so concurrent Updates of the same Value cannot leave Terms of both behind.
+        entries.compute(id, (ignored, previous) -> replace(id, previous, value, keys));
+    }
+
+    /**
+     * Changes the Value stored for the given ID, if there is one.
+     * The Change is applied while the ID is locked, so concurrent Updates of the same Value are never lost.
+     *
+     * @param id The ID of the Value.
+     * @param change The Function computing the new Value from the current one.
+     * @param terms The Function computing the Terms of the new Value (null Terms are ignored).
+     * @return true if a Value was stored for the ID, false otherwise.
+     */
+    public boolean update(I id, UnaryOperator<V> change, Function<V, String[]> terms) {
+        Entry<V> updated = entries.computeIfPresent(id, (ignored, previous) -> {
+            V value = change.apply(previous.value());
+            return replace(id, previous, value, keys(terms.apply(value)));
+        });
+        return updated != null;
+    }
+
+    /**
+     * Removes the Value with the given ID together with its Terms.
+     *
+     * @param id The ID of the Value.
+     */
+    public void remove(I id) {
+        entries.computeIfPresent(id, (ignored, previous) -> {
+            for (Key key : previous.keys())
+                this.terms.remove(key);
+            return null;
+        });
+    }
+
+    public void clear() {
+        entries.clear();
+        terms.clear();
+    }
+    //endregion
+
+    //region Queries
+    /**
+     * Gets the Value stored for the given ID.
+     *
+     * @param id The ID of the Value.
+     * @return The Value if it is indexed, empty otherwise.
+     */
+    public Optional<V> get(I id) {
+        return Optional.ofNullable(entries.get(id)).map(Entry::value);
+    }
+
+    /**
+     * Finds the Values that have a Term starting with the given Prefix (ignoring Case).
+     * Values are ordered by their first matching Term and only returned once, even if multiple Terms match.
+     *
+     * @param prefix The Prefix to search for.
+     * @param limit The maximum Number of Values to return.
+     * @return The matching Values.
+     */
+    public List<V> search(String prefix, int limit) {
+        if (prefix == null || limit <= 0)
+            return List.of();
+
+        String normalized = normalize(prefix);
+        Set<I> found = new HashSet<>();
+        List<V> results = new ArrayList<>(Math.min(limit, 64));
+        for (Map.Entry<Key, I> term : terms.tailMap(new Key(normalized, Long.MIN_VALUE)).entrySet()) {
+            if (!term.getKey().term().startsWith(normalized))
+                break;
+            if (!found.add(term.getValue()))
+                continue;
+
+            // NOTE: The Value might have been removed since its Term was read.
+            Entry<V> entry = entries.get(term.getValue());
+            if (entry != null) {
+                results.add(entry.value());
+                if (results.size() >= limit)
+                    break;
+            }
+        }
+        return results;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+    //endregion
+
+    private Key[] keys(String... terms) {
+        return Arrays.stream(terms)
+                .filter(Objects::nonNull)
+                .map(PrefixIndex::normalize)
+                .distinct()
+                .map(term -> new Key(term, sequence.incrementAndGet()))
+                .toArray(Key[]::new);
+    }
+
+    /**
+     * Swaps the Terms of the previous Entry for the given Keys. Must only be called while the ID is locked.
+     */
+    private Entry<V> replace(I id, Entry<V> previous, V value, Key[] keys) {
+        if (previous != null) {
+            for (Key key : previous.keys())
+                this.terms.remove(key);
+        }
+        for (Key key : keys)
+            this.terms.put(key, id);
+        return new Entry<>(value, keys);
+    }
+
+    private static String normalize(String term) {
+        return term.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,131 @@
+package at.ac.uibk.swa.util.concurrent;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free Token Bucket per Key (e.g. per IP-Address) using the Generic Cell Rate Algorithm.
+ * <br/>
+ * Instead of a Token Count and a Refill Timestamp, every Key only stores the "Theoretical Arrival Time",
+ * which is the Time at which its Bucket will be full again. Taking a Token moves it forward by one Emission Interval,
+ * so the whole State fits into a single {@link AtomicLong} and is updated with Compare-And-Set.
+ * <br/>
+ * Keys whose Bucket is full again carry no Information and are dropped whenever more than the maximum Number of Keys are tracked.
+ */
+public class RateLimiter<K> {
+
+    private final ConcurrentHashMap<K, AtomicLong> arrivalTimes = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean(false);
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final int maxKeys;
+    private final LongSupplier clock;
+
+    /**
+     * Creates a new Limiter where every Key starts with a full Bucket.
+     *
+     * @param burst The Number of Tokens a full Bucket holds.
+     * @param refillInterval The Time it takes to refill a single Token.
+     * @param maxKeys The maximum Number of Keys to track.
+     */
+    public RateLimiter(int burst, Duration refillInterval, int maxKeys) {
+        this(burst, refillInterval, maxKeys, System::nanoTime);
+    }
+
+    RateLimiter(int burst, Duration refillInterval, int maxKeys, LongSupplier clock) {
+        if (burst <= 0 || refillInterval.isNegative() || refillInterval.isZero() || maxKeys <= 0)
+            throw new IllegalArgumentException("The Burst, Refill Interval and maximum Number of Keys must be positive!");
+        this.emissionIntervalNanos = refillInterval.toNanos();
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+    }
+
+    //region Tokens
+    /**
+     * Takes a Token from the Bucket of the given Key.
+     *
+     * @param key The Key whose Bucket to take the Token from.
+     * @return true if a Token was available, false if the Bucket is empty.
+     */
+    public boolean tryAcquire(K key) {
+        long now = clock.getAsLong();
+        AtomicLong arrivalTime = arrivalTimes.get(key);
+        if (arrivalTime == null) {
+            if (arrivalTimes.size() >= maxKeys)
+                evict(now);
+            arrivalTime = arrivalTimes.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long current = arrivalTime.get();
+            // NOTE: An Arrival Time in the Past means the Bucket is full (it cannot hold more than its Burst).
+            long start = current - now > 0 ? current : now;
+            if (start - now > burstToleranceNanos)
+                return false;
+            if (arrivalTime.compareAndSet(current, start + emissionIntervalNanos))
+                return true;
+        }
+    }
+
+    /**
+     * Checks whether the Bucket of the given Key is empty without taking a Token.
+     *
+     * @param key The Key whose Bucket to check.
+     * @return true if no Token is available, false otherwise.
+     */
+    public boolean isLimited(K key) {
+        return getRetryAfter(key).isPresent();
+    }
+
+    /**
+     * Gets the Time until the Bucket of the given Key holds a Token again.
+     *
+     * @param key The Key whose Bucket to check.
+     * @return The Time to wait if the Bucket is empty, empty otherwise.
+     */
+    public Optional<Duration> getRetryAfter(K key) {
+        AtomicLong arrivalTime = arrivalTimes.get(key);
+        if (arrivalTime == null)
+            return Optional.empty();
+
+        long wait = arrivalTime.get() - clock.getAsLong() - burstToleranceNanos;
+        return wait > 0 ? Optional.of(Duration.ofNanos(wait)) : Optional.empty();
+    }
+    //endregion
+
+    //region Eviction
+    /**
+     * Drops all Keys whose Bucket is full again and, if that is not enough, arbitrary Keys until a new Key fits.
+     *
+     * @implNote Only one Thread evicts at a time. A Thread still holding the State of a dropped Key
+     *           updates a State that is no longer tracked, which at most grants that Key a fresh Bucket.
+     */
+    private void evict(long now) {
+        if (!evicting.compareAndSet(false, true))
+            return;
+
+        try {
+            arrivalTimes.values().removeIf(arrivalTime -> arrivalTime.get() - now <= 0);
+
+            Iterator<K> keys = arrivalTimes.keySet().iterator();
+            while (arrivalTimes.size() >= maxKeys && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    public int size() {
+        return arrivalTimes.size();
+    }
+    //endregion
+}
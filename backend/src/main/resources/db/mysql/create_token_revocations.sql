@@ -0,0 +1,26 @@
+-- Adds the "token_revocation"-Table to an existing MySQL Database (only needed for "swa.token.mode: signed").
+--
+-- Run this once while the Application is stopped, then start the new Version.
+-- NOTE: The Type of "person_id" has to match "swa.uuid.jdbc-type",
+--       so run "migrate_uuids_to_binary.sql" first if the UUIDs are converted as well.
+-- NOTE: There is no Foreign Key to the Person, the Tokens of deleted Persons have to stay revoked until they expire.
+
+SET @uuid_type = (
+    SELECT COLUMN_TYPE
+    FROM information_schema.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'person'
+      AND COLUMN_NAME = 'person_id'
+);
+
+SET @create_revocations = CONCAT(
+    'CREATE TABLE token_revocation (',
+    '    person_id ', @uuid_type, ' NOT NULL,',
+    '    revoked_at BIGINT NOT NULL,',
+    '    PRIMARY KEY (person_id),',
+    '    INDEX idx_token_revocation_revoked_at (revoked_at)',
+    ')'
+);
+PREPARE create_revocations FROM @create_revocations;
+EXECUTE create_revocations;
+DEALLOCATE PREPARE create_revocations;
@@ -0,0 +1,22 @@
+-- Moves the Permissions of an existing MySQL Database from the "permission"-Table into a Bitmask Column of the Person.
+--
+-- Run this once while the Application is stopped, then start the new Version.
+-- The Bits have to match Permission#mask() (USER = 1, ADMIN = 2).
+-- NOTE: If the UUIDs are converted as well, run "migrate_uuids_to_binary.sql" first, because it still needs the "permission"-Table.
+-- NOTE: MySQL commits every ALTER TABLE implicitly, so take a Backup first.
+
+ALTER TABLE person
+    ADD COLUMN permissions INT NOT NULL DEFAULT 0;
+
+UPDATE person p
+SET p.permissions = (
+    SELECT COALESCE(BIT_OR(CASE perm.name
+                               WHEN 'USER' THEN 1
+                               WHEN 'ADMIN' THEN 2
+                               ELSE 0
+                           END), 0)
+    FROM permission perm
+    WHERE perm.auth_id = p.person_id
+);
+
+DROP TABLE permission;
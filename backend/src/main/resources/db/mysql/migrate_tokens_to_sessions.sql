@@ -0,0 +1,38 @@
+-- Moves the Tokens of an existing MySQL Database from the "person"-Table into the "person_session"-Table.
+--
+-- Run this once while the Application is stopped, then start the new Version.
+-- Every existing Token becomes a Session of its Person, so nobody is logged out by the Migration.
+-- NOTE: The Type of "token" and "person_id" has to match "swa.uuid.jdbc-type",
+--       so run "migrate_uuids_to_binary.sql" first if the UUIDs are converted as well.
+-- NOTE: MySQL commits every ALTER TABLE implicitly, so take a Backup first.
+
+SET @uuid_type = (
+    SELECT COLUMN_TYPE
+    FROM information_schema.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'person'
+      AND COLUMN_NAME = 'person_id'
+);
+
+SET @create_sessions = CONCAT(
+    'CREATE TABLE person_session (',
+    '    token ', @uuid_type, ' NOT NULL,',
+    '    person_id ', @uuid_type, ' NOT NULL,',
+    '    creation_date TIMESTAMP(6) NOT NULL,',
+    '    PRIMARY KEY (token),',
+    '    INDEX idx_person_session_person (person_id),',
+    '    CONSTRAINT fk_person_session_person FOREIGN KEY (person_id) REFERENCES person (person_id) ON DELETE CASCADE',
+    ')'
+);
+PREPARE create_sessions FROM @create_sessions;
+EXECUTE create_sessions;
+DEALLOCATE PREPARE create_sessions;
+
+INSERT INTO person_session (token, person_id, creation_date)
+SELECT token, person_id, COALESCE(token_creation_date, CURRENT_TIMESTAMP)
+FROM person
+WHERE token IS NOT NULL;
+
+ALTER TABLE person
+    DROP COLUMN token,
+    DROP COLUMN token_creation_date;
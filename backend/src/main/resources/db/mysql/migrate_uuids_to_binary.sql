@@ -0,0 +1,53 @@
+-- Converts the UUID Columns of an existing MySQL Database from 36 Characters to BINARY(16).
+--
+-- Run this once while the Application is stopped, then start it with "swa.uuid.jdbc-type: BINARY".
+-- Hibernate stores UUIDs as their 16 Big-Endian Bytes, which is exactly UNHEX() of the UUID without Dashes.
+-- Existing IDs and Tokens are kept, only newly created ones are time-ordered.
+-- NOTE: MySQL commits every ALTER TABLE implicitly, so take a Backup first.
+-- NOTE: Run this before "migrate_permissions_to_bitmask.sql", which drops the "permission"-Table.
+
+-- The Foreign Key Name is generated by Hibernate, so look it up.
+SELECT CONSTRAINT_NAME INTO @permission_fk
+FROM information_schema.KEY_COLUMN_USAGE
+WHERE TABLE_SCHEMA = DATABASE()
+  AND TABLE_NAME = 'permission'
+  AND COLUMN_NAME = 'auth_id'
+  AND REFERENCED_TABLE_NAME = 'person'
+LIMIT 1;
+
+SET @drop_fk = CONCAT('ALTER TABLE permission DROP FOREIGN KEY ', @permission_fk);
+PREPARE drop_fk FROM @drop_fk;
+EXECUTE drop_fk;
+DEALLOCATE PREPARE drop_fk;
+
+-- Person: Convert the Values in place into new Columns, then swap the Columns.
+ALTER TABLE person
+    ADD COLUMN person_id_bin BINARY(16) NULL,
+    ADD COLUMN token_bin BINARY(16) NULL;
+
+UPDATE person
+SET person_id_bin = UNHEX(REPLACE(person_id, '-', '')),
+    token_bin = IF(token IS NULL, NULL, UNHEX(REPLACE(token, '-', '')));
+
+ALTER TABLE person
+    DROP PRIMARY KEY,
+    DROP COLUMN person_id,
+    DROP COLUMN token,
+    RENAME COLUMN person_id_bin TO person_id,
+    RENAME COLUMN token_bin TO token,
+    MODIFY person_id BINARY(16) NOT NULL,
+    ADD PRIMARY KEY (person_id),
+    ADD UNIQUE KEY uk_person_token (token);
+
+-- Permission: Same for the Reference to the Person.
+ALTER TABLE permission
+    ADD COLUMN auth_id_bin BINARY(16) NULL;
+
+UPDATE permission
+SET auth_id_bin = UNHEX(REPLACE(auth_id, '-', ''));
+
+ALTER TABLE permission
+    DROP COLUMN auth_id,
+    RENAME COLUMN auth_id_bin TO auth_id,
+    MODIFY auth_id BINARY(16) NOT NULL,
+    ADD CONSTRAINT fk_permission_person FOREIGN KEY (auth_id) REFERENCES person (person_id);
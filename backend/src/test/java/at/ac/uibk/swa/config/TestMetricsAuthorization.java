@@ -0,0 +1,69 @@
+package at.ac.uibk.swa.config;
+
+import at.ac.uibk.swa.models.Permission;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.util.AuthGenerator;
+import at.ac.uibk.swa.util.StringGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class TestMetricsAuthorization {
+    @Autowired
+    private PersonService personService;
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void userCannotReadMetrics() throws Exception {
+        // given: a logged in user without admin permission
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        assertTrue(personService.create(new Person(username, StringGenerator.email(), password, Set.of(Permission.USER))));
+        Person person = personService.login(username, password).orElseThrow();
+
+        // when: reading the metrics
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/actuator/metrics")
+                        .header(HttpHeaders.AUTHORIZATION, AuthGenerator.generateToken(person))
+                )
+        // then: access must be denied
+        .andExpectAll(
+                status().isForbidden()
+        );
+    }
+
+    @Test
+    public void adminCanReadMetrics() throws Exception {
+        // given: a logged in admin
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        assertTrue(personService.create(new Person(username, StringGenerator.email(), password, Set.of(Permission.ADMIN))));
+        Person person = personService.login(username, password).orElseThrow();
+
+        // when: reading the metrics
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/actuator/metrics")
+                        .header(HttpHeaders.AUTHORIZATION, AuthGenerator.generateToken(person))
+                )
+        // then: the metrics must be returned
+        .andExpectAll(
+                status().isOk()
+        );
+    }
+}
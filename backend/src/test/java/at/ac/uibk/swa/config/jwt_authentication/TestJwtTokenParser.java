@@ -0,0 +1,73 @@
+package at.ac.uibk.swa.config.jwt_authentication;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestJwtTokenParser {
+    private static final UUID TOKEN = UUID.fromString("62b3e09e-c529-40c6-85c6-1afc53e17408");
+
+    @Test
+    public void parseValidToken() {
+        // given: a well-formed header
+        String header = "{\"username\":\"Admin\",\"token\":\"" + TOKEN + "\"}";
+
+        // when: parsing the header
+        JwtToken jwt = JwtTokenParser.parse(header);
+
+        // then: username and token must be parsed correctly
+        assertNotNull(jwt, "Could not parse valid token");
+        assertEquals("Admin", jwt.getUsername());
+        assertEquals(TOKEN, jwt.getToken());
+    }
+
+    @Test
+    public void parseTokenWithWhitespaceEscapesAndReorderedFields() {
+        // given: a header with whitespace, escape sequences, upper-case hex digits and reordered fields
+        String header = " {\n \"token\" : \"" + TOKEN.toString().toUpperCase() + "\" , \"username\" : \"A\\u00e4\\\"b\" } ";
+
+        // when: parsing the header
+        JwtToken jwt = JwtTokenParser.parse(header);
+
+        // then: username and token must be parsed correctly
+        assertNotNull(jwt, "Could not parse valid token");
+        assertEquals("Aä\"b", jwt.getUsername());
+        assertEquals(TOKEN, jwt.getToken());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "null",
+            "{}",
+            "{\"username\":\"Admin\"}",
+            "{\"token\":\"62b3e09e-c529-40c6-85c6-1afc53e17408\"}",
+            "{\"username\":\"Admin\",\"token\":\"62b3e09e-c529-40c6-85c6-1afc53e1740\"}",
+            "{\"username\":\"Admin\",\"token\":\"62b3e09g-c529-40c6-85c6-1afc53e17408\"}",
+            "{\"username\":\"Admin\",\"token\":\"62b3e09e-c529-40c6-85c6-1afc53e17408\"",
+            "{\"username\":\"Admin\",\"token\":\"62b3e09e-c529-40c6-85c6-1afc53e17408\"}trailing",
+            "{\"username\":\"Admin\",\"token\":\"62b3e09e-c529-40c6-85c6-1afc53e17408\",\"other\":1}",
+            "{\"username\":\"Admin\",\"username\":\"Admin\",\"token\":\"62b3e09e-c529-40c6-85c6-1afc53e17408\"}",
+            "{\"username\":null,\"token\":\"62b3e09e-c529-40c6-85c6-1afc53e17408\"}",
+            "{\"username\":\"Ad\\xmin\",\"token\":\"62b3e09e-c529-40c6-85c6-1afc53e17408\"}",
+    })
+    public void rejectMalformedToken(String header) {
+        // when: parsing a malformed header
+        // then: the header must be rejected
+        assertNull(JwtTokenParser.parse(header), "Malformed header was accepted: " + header);
+    }
+
+    @Test
+    public void rejectOversizedToken() {
+        // given: a header that is longer than the allowed maximum
+        String header = "{\"username\":\"" + "A".repeat(JwtTokenParser.MAX_INPUT_LENGTH) + "\",\"token\":\"" + TOKEN + "\"}";
+
+        // when: parsing the header
+        // then: the header must be rejected
+        assertNull(JwtTokenParser.parse(header), "Oversized header was accepted");
+    }
+}
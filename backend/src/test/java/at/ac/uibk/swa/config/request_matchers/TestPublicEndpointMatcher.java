@@ -0,0 +1,80 @@
+package at.ac.uibk.swa.config.request_matchers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestPublicEndpointMatcher {
+    private static final PublicEndpointMatcher MATCHER = new PublicEndpointMatcher(List.of(
+            "/api/login",
+            "/api/register",
+            "/public/**",
+            "/users/{id}/avatar",
+            "/files/*.json",
+            "/items/{id:[0-9]+}"
+    ));
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        return request;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/api/login",
+            "/api/register",
+            "/public",
+            "/public/a/b",
+            "/users/5/avatar",
+            "/files/a.json",
+            "/items/12"
+    })
+    public void publicPathsMatch(String path) {
+        // given: a path of a public endpoint
+        // when: matching the path
+        // then: the path must be public
+        assertTrue(MATCHER.matchesPath(path), "Public path was not matched: " + path);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "/",
+            "/api",
+            "/api/logout",
+            "/api/login/",
+            "/api//login",
+            "/API/login",
+            "/users/5",
+            "/users/5/avatar/x",
+            "/files/a.txt",
+            "/items/ab"
+    })
+    public void protectedPathsDoNotMatch(String path) {
+        // given: a path that is not a public endpoint (or is not in its canonical form)
+        // when: matching the path
+        // then: the path must be protected
+        assertFalse(MATCHER.matchesPath(path), "Protected path was matched: " + path);
+    }
+
+    @Test
+    public void resultIsMemoizedPerPath() {
+        // given: a request that was already matched
+        MockHttpServletRequest request = request("/api/login");
+        assertTrue(MATCHER.matches(request));
+        assertFalse(MATCHER.protectedEndpoints().matches(request));
+
+        // when: the request is forwarded to another path
+        request.setServletPath("/api/logout");
+
+        // then: the memoized result must not be used for the new path
+        assertFalse(MATCHER.matches(request));
+        assertTrue(MATCHER.protectedEndpoints().matches(request));
+    }
+}
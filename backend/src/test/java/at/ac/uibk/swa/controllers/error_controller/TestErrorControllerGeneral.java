@@ -0,0 +1,54 @@
+package at.ac.uibk.swa.controllers.error_controller;
+
+import at.ac.uibk.swa.util.EndpointMatcherUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class TestErrorControllerGeneral {
+    @Autowired
+    private EndpointMatcherUtil endpointMatcherUtil;
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void authenticationErrorIsPreRendered() throws Exception {
+        // given: default setting
+
+        // when: accessing a protected endpoint without token (twice)
+        MvcResult first = mockMvc.perform(MockMvcRequestBuilders
+                        .post(endpointMatcherUtil.getApiLogoutEndpoint())
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andReturn();
+        MvcResult second = mockMvc.perform(MockMvcRequestBuilders
+                        .post(endpointMatcherUtil.getApiLogoutEndpoint())
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+        // then: status code 401 must be returned with a JSON body of the announced length
+                .andExpectAll(
+                        status().isUnauthorized(),
+                        content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON),
+                        jsonPath("$.message").value("Authentication failed!"),
+                        jsonPath("$.success").value(false)
+                )
+                .andReturn();
+
+        byte[] body = second.getResponse().getContentAsByteArray();
+        assertEquals(body.length, second.getResponse().getContentLength(), "Wrong Content-Length");
+        assertArrayEquals(first.getResponse().getContentAsByteArray(), body, "Error bodies differ between requests");
+    }
+}
@@ -0,0 +1,130 @@
+package at.ac.uibk.swa.controllers.person_controller;
+
+import at.ac.uibk.swa.models.Permission;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.util.AuthGenerator;
+import at.ac.uibk.swa.util.EndpointMatcherUtil;
+import at.ac.uibk.swa.util.StringGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class TestPersonControllerGeneral {
+    @Autowired
+    private PersonService personService;
+    @Autowired
+    private EndpointMatcherUtil endpointMatcherUtil;
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Creates some Users and logs in as an Admin.
+     *
+     * @return The Authorization Header of the Admin.
+     */
+    private String createUsersAndLoginAsAdmin() throws Exception {
+        for (int i = 0; i < 5; i++)
+            assertTrue(personService.create(new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of(Permission.USER))));
+
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        assertTrue(personService.create(new Person(username, StringGenerator.email(), password, Set.of(Permission.ADMIN))), "Unable to create admin");
+        return AuthGenerator.generateToken(personService.login(username, password).orElseThrow());
+    }
+
+    private String streamAllUsers(String token, MediaType accept) throws Exception {
+        MvcResult started = mockMvc.perform(MockMvcRequestBuilders
+                        .get(endpointMatcherUtil.toApiEndpoint("/stream-all-users"))
+                        .header(HttpHeaders.AUTHORIZATION, token)
+                        .accept(accept)
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(started))
+                .andExpectAll(
+                        status().isOk(),
+                        content().contentTypeCompatibleWith(accept)
+                )
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private static Set<String> usernames(Iterable<JsonNode> persons) {
+        Set<String> usernames = new HashSet<>();
+        for (JsonNode person : persons)
+            usernames.add(person.get("username").asText());
+        return usernames;
+    }
+
+    private Set<String> expectedUsernames() {
+        Set<String> usernames = new HashSet<>();
+        personService.forEachPersonSummary(person -> usernames.add(person.username()));
+        return usernames;
+    }
+
+    @Test
+    public void streamAllUsersAsJson() throws Exception {
+        // given: some demo users and a logged in admin
+        String token = createUsersAndLoginAsAdmin();
+        Set<String> expected = expectedUsernames();
+
+        // when: streaming all users as JSON
+        String body = streamAllUsers(token, MediaType.APPLICATION_JSON);
+
+        // then: the body must be a single list response containing every user once
+        JsonNode response = objectMapper.readTree(body);
+        assertTrue(response.get("success").asBoolean(), "Response was not successful");
+        assertEquals("List", response.get("type").asText());
+        JsonNode items = response.get("items");
+        assertTrue(items.isArray(), "Users are not framed as an array");
+        assertEquals(expected.size(), items.size(), "Wrong number of users");
+        assertEquals(expected, usernames(items), "Streamed users differ");
+    }
+
+    @Test
+    public void streamAllUsersAsNdjson() throws Exception {
+        // given: some demo users and a logged in admin
+        String token = createUsersAndLoginAsAdmin();
+        Set<String> expected = expectedUsernames();
+
+        // when: streaming all users as newline-delimited JSON
+        String body = streamAllUsers(token, MediaType.APPLICATION_NDJSON);
+
+        // then: every line must hold exactly one user object
+        assertTrue(body.endsWith("\n"), "Last line is not terminated");
+        String[] lines = body.split("\n");
+        assertEquals(expected.size(), lines.length, "Wrong number of lines");
+        Set<JsonNode> persons = new HashSet<>();
+        for (String line : lines) {
+            JsonNode person = objectMapper.readTree(line);
+            assertTrue(person.isObject(), "Line is not a single user object: " + line);
+            persons.add(person);
+        }
+        assertEquals(expected, usernames(persons), "Streamed users differ");
+    }
+}
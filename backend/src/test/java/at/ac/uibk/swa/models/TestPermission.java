@@ -0,0 +1,54 @@
+package at.ac.uibk.swa.models;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestPermission {
+    @Test
+    public void masksAreDistinctBits() {
+        // given: all permissions
+        int combined = 0;
+        for (Permission permission : Permission.values()) {
+            // when: combining their masks
+            // then: every permission must have its own single bit
+            assertEquals(1, Integer.bitCount(permission.mask()), "Mask is not a single bit: " + permission);
+            assertEquals(0, combined & permission.mask(), "Mask is shared: " + permission);
+            combined |= permission.mask();
+        }
+    }
+
+    @Test
+    public void maskRoundTrip() {
+        // given: a set of permissions and an authority that is not a permission
+        Set<GrantedAuthority> permissions = Set.of(Permission.USER, Permission.ADMIN);
+        Set<GrantedAuthority> withForeignAuthority = new HashSet<>(permissions);
+        withForeignAuthority.add(new SimpleGrantedAuthority("OTHER"));
+
+        // when: converting them to a mask and back
+        int mask = Permission.toMask(withForeignAuthority);
+
+        // then: only the permissions must be kept
+        assertEquals(Permission.toMask(Permission.USER, Permission.ADMIN), mask);
+        assertEquals(permissions, Permission.fromMask(mask));
+        assertEquals(Set.of(), Permission.fromMask(0));
+    }
+
+    @Test
+    public void maskFollowsReplacedPermissions() {
+        // given: a user with only the user permission
+        Person person = new Person("username", "email", "password", Set.of(Permission.USER));
+        assertEquals(Permission.USER.mask(), person.getPermissionMask());
+
+        // when: replacing the permissions
+        person.setPermissions(Set.of(Permission.USER, Permission.ADMIN));
+
+        // then: the mask must contain the new permissions
+        assertEquals(Permission.toMask(Permission.USER, Permission.ADMIN), person.getPermissionMask());
+    }
+}
@@ -0,0 +1,142 @@
+package at.ac.uibk.swa.service.authentication_throttle_service;
+
+import at.ac.uibk.swa.config.jwt_authentication.JwtToken;
+import at.ac.uibk.swa.models.Permission;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.util.EndpointMatcherUtil;
+import at.ac.uibk.swa.util.StringGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "swa.token.throttle.failure-burst=3",
+        "swa.token.throttle.failure-refill-interval=1h"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class TestAuthenticationThrottleServiceGeneral {
+    @Autowired
+    private PersonService personService;
+    @Autowired
+    private EndpointMatcherUtil endpointMatcherUtil;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    @Autowired
+    private MockMvc mockMvc;
+
+    private void logout(String remoteAddress, JwtToken token, ResultMatcher... matchers) throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders
+                        .post(endpointMatcherUtil.toApiEndpoint(endpointMatcherUtil.getApiLogoutEndpoint()))
+                        .header(HttpHeaders.AUTHORIZATION, new ObjectMapper().writeValueAsString(token))
+                        .with(request -> {
+                            request.setRemoteAddr(remoteAddress);
+                            return request;
+                        })
+                )
+                .andExpectAll(matchers);
+    }
+
+    private void getAllPermissions(String remoteAddress, JwtToken token, ResultMatcher... matchers) throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get(endpointMatcherUtil.toApiEndpoint("/get-all-permissions"))
+                        .header(HttpHeaders.AUTHORIZATION, new ObjectMapper().writeValueAsString(token))
+                        .with(request -> {
+                            request.setRemoteAddr(remoteAddress);
+                            return request;
+                        })
+                )
+                .andExpectAll(matchers);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("authentication.token.requests").tag("result", result).counter().count();
+    }
+
+    @Test
+    public void repeatedInvalidTokensAreThrottled() throws Exception {
+        // given: a client that sent as many invalid tokens as allowed
+        String remoteAddress = "10.0.0.1";
+        for (int i = 0; i < 3; i++)
+            logout(remoteAddress, new JwtToken(StringGenerator.username(), UUID.randomUUID()), status().isUnauthorized());
+        double throttledBefore = count("throttled");
+
+        // when: sending another invalid token
+        // then: the request must be throttled and counted
+        logout(remoteAddress, new JwtToken(StringGenerator.username(), UUID.randomUUID()),
+                status().isTooManyRequests(),
+                header().exists(HttpHeaders.RETRY_AFTER)
+        );
+        assertEquals(throttledBefore + 1, count("throttled"));
+
+        // then: other clients must not be affected
+        logout("10.0.0.2", new JwtToken(StringGenerator.username(), UUID.randomUUID()), status().isUnauthorized());
+    }
+
+    @Test
+    public void rejectedTokenIsRemembered() throws Exception {
+        // given: an invalid token that was rejected once
+        JwtToken token = new JwtToken(StringGenerator.username(), UUID.randomUUID());
+        logout("10.0.1.1", token, status().isUnauthorized());
+        double rejectedBefore = count("rejected");
+
+        // when: replaying the same token
+        // then: it must still be rejected
+        logout("10.0.1.1", token, status().isUnauthorized());
+        assertEquals(rejectedBefore + 1, count("rejected"));
+    }
+
+    @Test
+    public void validTokenIsAdmitted() throws Exception {
+        // given: a logged-in user
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        assertTrue(personService.create(new Person(username, StringGenerator.email(), password, Set.of())));
+        Person person = personService.login(username, password).orElseThrow();
+        double admittedBefore = count("admitted");
+
+        // when: sending the valid token
+        // then: the request must be admitted
+        logout("10.0.2.1", new JwtToken(person), status().isOk());
+        assertEquals(admittedBefore + 1, count("admitted"));
+    }
+
+    @Test
+    public void validCachedTokenIsAdmittedWhileThrottled() throws Exception {
+        // given: a logged-in admin whose session is cached by a first request
+        String remoteAddress = "10.0.3.1";
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        assertTrue(personService.create(new Person(username, StringGenerator.email(), password, Set.of(Permission.ADMIN))));
+        JwtToken token = new JwtToken(personService.login(username, password).orElseThrow());
+        getAllPermissions(remoteAddress, token, status().isOk());
+
+        // given: another client behind the same address that got throttled
+        for (int i = 0; i < 3; i++)
+            logout(remoteAddress, new JwtToken(StringGenerator.username(), UUID.randomUUID()), status().isUnauthorized());
+        logout(remoteAddress, new JwtToken(StringGenerator.username(), UUID.randomUUID()), status().isTooManyRequests());
+        double throttledBefore = count("throttled");
+
+        // when: sending the valid token from the throttled address
+        // then: the request must still be admitted
+        getAllPermissions(remoteAddress, token, status().isOk());
+        assertEquals(throttledBefore, count("throttled"), "Valid token was throttled");
+    }
+}
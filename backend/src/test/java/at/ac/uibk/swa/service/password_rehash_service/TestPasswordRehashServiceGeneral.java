@@ -0,0 +1,66 @@
+package at.ac.uibk.swa.service.password_rehash_service;
+
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.repositories.PersonRepository;
+import at.ac.uibk.swa.service.PasswordRehashService;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.util.StringGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "swa.password.bcrypt-strength=5")
+@ActiveProfiles("test")
+public class TestPasswordRehashServiceGeneral {
+    @Autowired
+    private PersonService personService;
+    @Autowired
+    private PasswordRehashService passwordRehashService;
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Test
+    public void detectStaleHashes() {
+        // given: hashes with different strengths
+        String password = StringGenerator.password();
+        String staleHash = new BCryptPasswordEncoder(4).encode(password);
+        String currentHash = new BCryptPasswordEncoder(5).encode(password);
+
+        // when: checking whether they need to be re-hashed
+        // then: only the hash with a different strength must be re-hashed
+        assertTrue(passwordRehashService.needsRehash(staleHash), "Stale hash was not detected");
+        assertFalse(passwordRehashService.needsRehash(currentHash), "Current hash was detected as stale");
+        assertFalse(passwordRehashService.needsRehash("not a hash"), "Invalid hash was detected as stale");
+    }
+
+    @Test
+    public void staleHashIsUpgradedAfterLogin() throws InterruptedException {
+        // given: user whose password was hashed with a lower strength
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        Person person = new Person(username, StringGenerator.email(), password, Set.of());
+        assertTrue(personService.create(person), "Unable to create user for test");
+        String staleHash = new BCryptPasswordEncoder(4).encode(password);
+        assertEquals(1, personRepository.updatePasswordHash(person.getPersonId(), person.getPassword(), staleHash));
+
+        // when: logging in
+        assertTrue(personService.login(username, password).isPresent(), "Could not login");
+
+        // then: the hash must be upgraded in the background and the password must still be valid
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (staleHash.equals(personRepository.findByUsername(username).orElseThrow().getPassword())) {
+            assertTrue(System.nanoTime() < deadline, "Hash was not upgraded");
+            Thread.sleep(10);
+        }
+        String upgradedHash = personRepository.findByUsername(username).orElseThrow().getPassword();
+        assertFalse(passwordRehashService.needsRehash(upgradedHash), "Hash was not upgraded to the configured strength");
+        assertTrue(personService.login(username, password).isPresent(), "Could not login with upgraded hash");
+    }
+}
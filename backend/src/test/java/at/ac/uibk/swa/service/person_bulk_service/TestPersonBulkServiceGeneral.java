@@ -0,0 +1,155 @@
+package at.ac.uibk.swa.service.person_bulk_service;
+
+import at.ac.uibk.swa.config.jwt_authentication.JwtToken;
+import at.ac.uibk.swa.models.Permission;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.service.PersonBulkService;
+import at.ac.uibk.swa.service.PersonBulkService.CreationResult;
+import at.ac.uibk.swa.service.PersonBulkService.CreationStatus;
+import at.ac.uibk.swa.service.PersonBulkService.NewPerson;
+import at.ac.uibk.swa.service.PersonBulkService.PersonFilter;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.service.SessionCacheService;
+import at.ac.uibk.swa.util.StringGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "swa.persons.bulk.batch-size=3")
+@ActiveProfiles("test")
+public class TestPersonBulkServiceGeneral {
+    @Autowired
+    private PersonBulkService personBulkService;
+    @Autowired
+    private PersonService personService;
+    @Autowired
+    private SessionCacheService sessionCache;
+
+    @Test
+    public void createAllCreatesUsersInBatches() {
+        // given: more new users than fit into a single batch
+        List<NewPerson> newPersons = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+            newPersons.add(new NewPerson(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of(Permission.USER)));
+
+        // when: creating them at once
+        List<CreationResult> results = personBulkService.createAll(newPersons);
+
+        // then: all users must be created and able to log in
+        assertEquals(newPersons.size(), results.size());
+        for (int i = 0; i < newPersons.size(); i++) {
+            assertEquals(CreationStatus.CREATED, results.get(i).status(), "User " + i + " was not created");
+            assertNotNull(results.get(i).personId());
+            Optional<Person> person = personService.login(newPersons.get(i).username(), newPersons.get(i).password());
+            assertTrue(person.isPresent(), "Unable to log in as user " + i);
+            assertEquals(results.get(i).personId(), person.get().getPersonId());
+            assertEquals(Set.of(Permission.USER), person.get().getPermissions());
+        }
+    }
+
+    @Test
+    public void createAllReportsDuplicatesAndInvalidRows() {
+        // given: an existing user, a username used twice and an invalid row
+        String existing = StringGenerator.username();
+        assertTrue(personService.create(new Person(existing, StringGenerator.email(), StringGenerator.password(), Set.of())));
+        String twice = StringGenerator.username();
+        List<NewPerson> newPersons = List.of(
+                new NewPerson(existing, StringGenerator.email(), StringGenerator.password(), null),
+                new NewPerson(twice, StringGenerator.email(), StringGenerator.password(), null),
+                new NewPerson(twice, StringGenerator.email(), StringGenerator.password(), null),
+                new NewPerson(StringGenerator.username(), StringGenerator.email(), "", null),
+                new NewPerson(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), null)
+        );
+
+        // when: creating them at once
+        List<CreationResult> results = personBulkService.createAll(newPersons);
+
+        // then: every row must get its own result and the valid ones must still be created
+        assertEquals(
+                List.of(CreationStatus.DUPLICATE, CreationStatus.CREATED, CreationStatus.DUPLICATE, CreationStatus.INVALID, CreationStatus.CREATED),
+                results.stream().map(CreationResult::status).toList()
+        );
+        assertEquals(Permission.defaultPermissions(), personService.findById(results.get(4).personId()).orElseThrow().getPermissions());
+    }
+
+    private List<UUID> createUsersOfDomain(String domain, int count, Set<Permission> permissions) {
+        List<NewPerson> newPersons = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+            newPersons.add(new NewPerson(StringGenerator.username(), "user" + i + "@" + domain, StringGenerator.password(), permissions));
+        return personBulkService.createAll(newPersons).stream().map(CreationResult::personId).toList();
+    }
+
+    @Test
+    public void updatePermissionsByEmailDomain() {
+        // given: admins of one domain (more than fit into a single chunk) and an admin of another domain
+        String domain = StringGenerator.base("abcdefghijklmnopqrstuvwxyz", 12) + ".com";
+        List<UUID> tenant = createUsersOfDomain(domain, 7, Set.of(Permission.USER, Permission.ADMIN));
+        List<UUID> other = createUsersOfDomain("other-" + domain, 1, Set.of(Permission.USER, Permission.ADMIN));
+
+        // when: revoking the admin permission of the domain
+        int updated = personBulkService.updatePermissions(new PersonFilter(null, domain.toUpperCase()), null, Set.of(Permission.ADMIN));
+
+        // then: only the users of the domain must have lost the permission
+        assertEquals(tenant.size(), updated);
+        for (UUID id : tenant)
+            assertEquals(Set.of(Permission.USER), personService.findById(id).orElseThrow().getPermissions());
+        assertEquals(Set.of(Permission.USER, Permission.ADMIN), personService.findById(other.get(0)).orElseThrow().getPermissions());
+    }
+
+    @Test
+    public void cachedSessionLosesPermissionRightAway() {
+        // given: a logged in admin whose session is cached
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        assertTrue(personService.create(new Person(username, StringGenerator.email(), password, Set.of(Permission.USER, Permission.ADMIN))));
+        Person loggedIn = personService.login(username, password).orElseThrow();
+        JwtToken jwt = new JwtToken(username, loggedIn.getToken());
+        sessionCache.get(jwt, () -> personService.findByUsernameAndToken(jwt)).orElseThrow();
+
+        // when: revoking the admin permission by id
+        personBulkService.updatePermissions(new PersonFilter(List.of(loggedIn.getPersonId()), null), null, Set.of(Permission.ADMIN));
+
+        // then: the session must carry the new permissions
+        Person current = sessionCache.get(jwt, () -> personService.findByUsernameAndToken(jwt)).orElseThrow();
+        assertEquals(Set.of(Permission.USER), current.getPermissions());
+    }
+
+    @Test
+    public void deleteAllByIdsAndEmailDomain() {
+        // given: users of a domain and some users selected by id
+        String domain = StringGenerator.base("abcdefghijklmnopqrstuvwxyz", 12) + ".com";
+        List<UUID> tenant = createUsersOfDomain(domain, 5, null);
+        List<UUID> selected = createUsersOfDomain("other-" + domain, 4, null);
+
+        // when: deleting them at once
+        int deletedByDomain = personBulkService.deleteAll(new PersonFilter(null, domain));
+        int deletedByIds = personBulkService.deleteAll(new PersonFilter(selected.subList(0, 2), null));
+
+        // then: exactly the selected users must be deleted
+        assertEquals(tenant.size(), deletedByDomain);
+        assertEquals(2, deletedByIds);
+        for (UUID id : tenant)
+            assertTrue(personService.findById(id).isEmpty(), "User of domain was not deleted");
+        assertTrue(personService.findById(selected.get(0)).isEmpty(), "Selected user was not deleted");
+        assertTrue(personService.findById(selected.get(2)).isPresent(), "Other user was deleted");
+    }
+
+    @Test
+    public void filterNeedsExactlyOneCriterion() {
+        // given: filters with no or both criteria
+        // when: checking them
+        // then: they must be invalid
+        assertFalse(new PersonFilter(null, " ").isValid());
+        assertFalse(new PersonFilter(List.of(UUID.randomUUID()), "example.com").isValid());
+        assertTrue(new PersonFilter(List.of(UUID.randomUUID()), null).isValid());
+    }
+}
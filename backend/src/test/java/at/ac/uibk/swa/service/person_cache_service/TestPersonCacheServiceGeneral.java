@@ -0,0 +1,130 @@
+package at.ac.uibk.swa.service.person_cache_service;
+
+import at.ac.uibk.swa.models.Permission;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.service.PersonBulkService;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.util.StringGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+public class TestPersonCacheServiceGeneral {
+    @Autowired
+    private PersonService personService;
+    @Autowired
+    private PersonBulkService personBulkService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setupStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void repeatedLookupsByIdAreCached() {
+        // given: demo user that was looked up once
+        Person person = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of(Permission.USER));
+        assertTrue(personService.create(person), "Unable to create user for test");
+        assertTrue(personService.findById(person.getPersonId()).isPresent(), "Could not find user");
+        statistics.clear();
+
+        // when: looking up the user again
+        Person found = personService.findById(person.getPersonId()).orElseThrow();
+
+        // then: the user must be returned without querying the database
+        assertEquals(0, statistics.getPrepareStatementCount(), "Cached user was loaded again");
+        assertEquals(person.getUsername(), found.getUsername());
+        assertTrue(meterRegistry.get("persons.cache.hit_ratio").tag("region", "persons_by_id").gauge().value() > 0,
+                "Hit ratio was not reported");
+    }
+
+    @Test
+    public void repeatedLoginsAreCached() {
+        // given: demo user that logged in once
+        String password = StringGenerator.password();
+        Person person = new Person(StringGenerator.username(), StringGenerator.email(), password, Set.of(Permission.USER));
+        assertTrue(personService.create(person), "Unable to create user for test");
+        assertTrue(personService.login(person.getUsername(), password).isPresent(), "Could not login");
+        double hits = meterRegistry.get("cache.gets").tag("cache", "persons_by_username").tag("result", "hit").functionCounter().count();
+
+        // when: logging in again
+        assertTrue(personService.login(person.getUsername(), password).isPresent(), "Could not login again");
+
+        // then: the user must be found in the cache
+        assertEquals(hits + 1, meterRegistry.get("cache.gets").tag("cache", "persons_by_username").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    public void updatesInvalidateCachedPersons() {
+        // given: demo user in the cache
+        String password = StringGenerator.password();
+        Person person = new Person(StringGenerator.username(), StringGenerator.email(), password, Set.of(Permission.USER));
+        assertTrue(personService.create(person), "Unable to create user for test");
+        assertTrue(personService.login(person.getUsername(), password).isPresent(), "Could not login");
+
+        // when: renaming the user
+        String newUsername = StringGenerator.username();
+        assertTrue(personService.update(person.getPersonId(), newUsername, null, null), "Could not update user");
+
+        // then: the new username must be returned and the old one must not be found anymore
+        assertEquals(newUsername, personService.findById(person.getPersonId()).orElseThrow().getUsername());
+        assertTrue(personService.login(person.getUsername(), password).isEmpty(), "Could login with old username");
+        assertTrue(personService.login(newUsername, password).isPresent(), "Could not login with new username");
+    }
+
+    @Test
+    public void bulkUpdatesInvalidateCachedPersons() {
+        // given: demo user in the cache
+        Person person = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of(Permission.USER));
+        assertTrue(personService.create(person), "Unable to create user for test");
+        assertTrue(personService.findById(person.getPersonId()).isPresent());
+
+        // when: granting a permission to the user with a bulk update
+        personBulkService.updatePermissions(
+                new PersonBulkService.PersonFilter(List.of(person.getPersonId()), null),
+                Set.of(Permission.ADMIN), Set.of()
+        );
+
+        // then: the new permissions must be returned
+        assertEquals(Set.of(Permission.USER, Permission.ADMIN), personService.findById(person.getPersonId()).orElseThrow().getPermissions());
+
+        // when: deleting the user with a bulk delete
+        personBulkService.deleteAll(new PersonBulkService.PersonFilter(List.of(person.getPersonId()), null));
+
+        // then: the user must not be found anymore
+        assertTrue(personService.findById(person.getPersonId()).isEmpty(), "Deleted user was found");
+    }
+
+    @Test
+    public void cachedPersonsAreCopies() {
+        // given: demo user in the cache
+        Person person = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of(Permission.USER));
+        assertTrue(personService.create(person), "Unable to create user for test");
+        Person found = personService.findById(person.getPersonId()).orElseThrow();
+
+        // when: modifying the returned user
+        found.setUsername("modified");
+
+        // then: the cached user must not change
+        assertEquals(person.getUsername(), personService.findById(person.getPersonId()).orElseThrow().getUsername());
+    }
+}
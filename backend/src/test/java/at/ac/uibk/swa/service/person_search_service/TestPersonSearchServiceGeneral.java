@@ -0,0 +1,77 @@
+package at.ac.uibk.swa.service.person_search_service;
+
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.service.PersonSearchService;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.util.StringGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class TestPersonSearchServiceGeneral {
+    @Autowired
+    private PersonSearchService personSearchService;
+    @Autowired
+    private PersonService personService;
+
+    private static List<String> usernames(List<PersonSearchService.PersonMatch> matches) {
+        return matches.stream().map(PersonSearchService.PersonMatch::username).toList();
+    }
+
+    @Test
+    public void createdPersonsAreFoundByUsernameAndEmail() {
+        // given: demo user in database
+        Person person = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of());
+        assertTrue(personService.create(person), "Unable to create user for test");
+
+        // then: the user must be found by the beginning of its username and email
+        assertTrue(usernames(personSearchService.search(person.getUsername().substring(0, 20), 50)).contains(person.getUsername()),
+                "User was not found by its username");
+        assertTrue(usernames(personSearchService.search(person.getEmail().toUpperCase(), 50)).contains(person.getUsername()),
+                "User was not found by its email");
+    }
+
+    @Test
+    public void updatedAndDeletedPersonsAreReindexed() {
+        // given: demo user in database
+        Person person = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of());
+        assertTrue(personService.create(person), "Unable to create user for test");
+
+        // when: changing the username and email of the user
+        String newUsername = StringGenerator.username();
+        String newEmail = StringGenerator.email();
+        assertTrue(personService.update(person.getPersonId(), newUsername, newEmail, null, null), "Could not update user");
+
+        // then: the user must only be found by the new values
+        assertTrue(personSearchService.search(person.getUsername(), 50).isEmpty(), "User was found by its old username");
+        assertEquals(List.of(new PersonSearchService.PersonMatch(person.getPersonId(), newUsername, newEmail)),
+                personSearchService.search(newUsername, 50));
+
+        // when: deleting the user
+        assertTrue(personService.delete(person.getPersonId()), "Could not delete user");
+
+        // then: the user must not be found anymore
+        assertTrue(personSearchService.search(newUsername, 50).isEmpty(), "Deleted user was found");
+    }
+
+    @Test
+    public void resultsAreLimited() {
+        // given: some demo users with a common prefix
+        String prefix = StringGenerator.username();
+        for (int i = 0; i < 5; i++)
+            assertTrue(personService.create(new Person(prefix + i, StringGenerator.email(), StringGenerator.password(), Set.of())));
+
+        // then: no more than the limit must be returned
+        assertEquals(3, personSearchService.search(prefix, 3).size());
+        assertEquals(5, personSearchService.search(prefix, 10).size());
+        assertTrue(personSearchService.search(" ", 10).isEmpty(), "Blank queries must not match");
+    }
+}
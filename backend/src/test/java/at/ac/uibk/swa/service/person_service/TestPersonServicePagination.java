@@ -0,0 +1,88 @@
+package at.ac.uibk.swa.service.person_service;
+
+import at.ac.uibk.swa.models.Permission;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.models.PersonSummary;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.service.PersonService.PersonOrder;
+import at.ac.uibk.swa.service.PersonService.PersonPage;
+import at.ac.uibk.swa.util.CursorUtil;
+import at.ac.uibk.swa.util.StringGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class TestPersonServicePagination {
+    @Autowired
+    private PersonService personService;
+
+    @BeforeEach
+    public void createUsers() {
+        for (int i = 0; i < 10; i++) {
+            Person person = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of(Permission.USER));
+            assertTrue(personService.create(person), "Unable to create user " + person);
+        }
+    }
+
+    private List<PersonSummary> readAllPages(PersonOrder order, int limit) {
+        List<PersonSummary> persons = new ArrayList<>();
+        String cursor = null;
+        do {
+            PersonPage page = personService.getPersonsPage(order, cursor, limit).orElseThrow();
+            assertTrue(page.persons().size() <= limit, "Page is larger than the limit");
+            persons.addAll(page.persons());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return persons;
+    }
+
+    @Test
+    public void pagesByUsernameContainAllUsersInOrder() {
+        // given: users stored in database
+        List<PersonSummary> expected = new ArrayList<>(personService.getPersonSummaries());
+        expected.sort(Comparator.comparing(PersonSummary::username));
+
+        // when: paging through all users ordered by username
+        List<PersonSummary> paged = readAllPages(PersonOrder.USERNAME, 3);
+
+        // then: every user must be returned exactly once in the correct order
+        assertEquals(expected, paged);
+    }
+
+    @Test
+    public void pagesByIdContainAllUsersOnce() {
+        // given: users stored in database
+        List<PersonSummary> expected = personService.getPersonSummaries();
+
+        // when: paging through all users ordered by id
+        List<PersonSummary> paged = readAllPages(PersonOrder.ID, 4);
+
+        // then: every user must be returned exactly once
+        assertEquals(expected.size(), paged.size(), "Wrong number of users");
+        assertEquals(new HashSet<>(expected), new HashSet<>(paged), "Paged users differ");
+    }
+
+    @Test
+    public void cursorOfOtherOrderingIsRejected() {
+        // given: a cursor created for ordering by username
+        PersonPage page = personService.getPersonsPage(PersonOrder.USERNAME, null, 1).orElseThrow();
+        assertNotNull(page.nextCursor(), "No cursor returned for a partial page");
+
+        // when: using it to page by id
+        // then: it must be rejected
+        assertTrue(personService.getPersonsPage(PersonOrder.ID, page.nextCursor(), 1).isEmpty());
+        assertTrue(personService.getPersonsPage(PersonOrder.ID, CursorUtil.encode("ID", "no-uuid"), 1).isEmpty());
+    }
+}
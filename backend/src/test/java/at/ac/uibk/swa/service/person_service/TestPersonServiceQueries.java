@@ -0,0 +1,236 @@
+package at.ac.uibk.swa.service.person_service;
+
+import at.ac.uibk.swa.models.Permission;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.models.PersonSummary;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.util.StringGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+public class TestPersonServiceQueries {
+    @Autowired
+    private PersonService personService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setupStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void getPersonsIssuesOneStatement() {
+        // given: some demo users with different permissions stored in database
+        for (int i = 0; i < 10; i++) {
+            Person person = new Person(
+                    StringGenerator.username(),
+                    StringGenerator.email(),
+                    StringGenerator.password(),
+                    i % 2 == 0 ? Set.of(Permission.USER) : Set.of(Permission.USER, Permission.ADMIN)
+            );
+            assertTrue(personService.create(person), "Unable to create user " + person);
+        }
+        statistics.clear();
+
+        // when: retrieving all users from database
+        List<Person> persons = personService.getPersons();
+
+        // then: the users and their permissions must be loaded with a single statement
+        assertTrue(persons.size() >= 10, "Not all users were found");
+        assertTrue(persons.stream().allMatch(p -> p.getPermissions().contains(Permission.USER)),
+                "Permissions were not loaded");
+        assertEquals(1, statistics.getPrepareStatementCount(), "Loading all users needed more than one statement");
+    }
+
+    @Test
+    public void personSummariesIssueOneStatementWithoutEntities() {
+        // given: some demo users stored in database
+        for (int i = 0; i < 10; i++) {
+            Person person = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of(Permission.USER));
+            assertTrue(personService.create(person), "Unable to create user " + person);
+        }
+        Map<UUID, Person> expected = personService.getPersons().stream()
+                .collect(Collectors.toMap(Person::getPersonId, Function.identity()));
+        statistics.clear();
+
+        // when: retrieving the summaries of all users
+        List<PersonSummary> summaries = personService.getPersonSummaries();
+
+        // then: the summaries must match the users and no entity must be loaded
+        assertEquals(expected.size(), summaries.size(), "Not all users were found");
+        for (PersonSummary summary : summaries) {
+            Person person = expected.get(summary.personId());
+            assertNotNull(person, "Unknown user " + summary);
+            assertEquals(person.getUsername(), summary.username());
+            assertEquals(person.getEmail(), summary.email());
+            assertEquals(person.getPermissions(), summary.permissions());
+        }
+        assertEquals(1, statistics.getPrepareStatementCount(), "Loading the summaries needed more than one statement");
+        assertEquals(0, statistics.getEntityLoadCount(), "Loading the summaries loaded entities");
+    }
+
+    @Test
+    public void forEachPersonSummaryVisitsAllUsers() {
+        // given: some demo users stored in database
+        for (int i = 0; i < 10; i++) {
+            Person person = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of(Permission.USER));
+            assertTrue(personService.create(person), "Unable to create user " + person);
+        }
+        List<PersonSummary> expected = personService.getPersonSummaries();
+
+        // when: streaming all users from database
+        List<PersonSummary> streamed = new ArrayList<>();
+        personService.forEachPersonSummary(streamed::add);
+
+        // then: every user must be visited once
+        assertEquals(expected.size(), streamed.size(), "Not all users were streamed");
+        assertEquals(new HashSet<>(expected), new HashSet<>(streamed), "Streamed users differ");
+    }
+
+    @Test
+    public void permissionsAreStoredAsMask() {
+        // given: a user with multiple permissions
+        Person person = new Person(
+                StringGenerator.username(),
+                StringGenerator.email(),
+                StringGenerator.password(),
+                Set.of(Permission.USER, Permission.ADMIN)
+        );
+        assertTrue(personService.create(person), "Unable to create user " + person);
+
+        // when: loading the user again
+        Person found = personService.getPersons().stream()
+                .filter(person::equals)
+                .findFirst()
+                .orElseThrow();
+
+        // then: the permissions must be identical
+        assertEquals(Set.of(Permission.USER, Permission.ADMIN), found.getPermissions());
+    }
+
+    @Test
+    public void updatingOnlyUsernameIssuesOneStatement() {
+        // given: demo user in database
+        Person person = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of(Permission.USER));
+        assertTrue(personService.create(person), "Unable to create user " + person);
+        statistics.clear();
+
+        // when: changing only the username of the user
+        String newUsername = StringGenerator.username();
+        assertTrue(personService.update(person.getPersonId(), newUsername, null, null), "Could not update user");
+
+        // then: the user must be updated without being loaded first
+        assertEquals(1, statistics.getPrepareStatementCount(), "Updating the username needed more than one statement");
+        assertEquals(0, statistics.getEntityLoadCount(), "The user was loaded before updating it");
+        assertEquals(newUsername, personService.findById(person.getPersonId()).orElseThrow().getUsername());
+    }
+
+    @Test
+    public void updatingOnlyEmailIssuesOneStatement() {
+        // given: demo user in database
+        Person person = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of(Permission.USER));
+        assertTrue(personService.create(person), "Unable to create user " + person);
+        statistics.clear();
+
+        // when: changing only the email of the user
+        String newEmail = StringGenerator.email();
+        assertTrue(personService.update(person.getPersonId(), null, newEmail, null, null), "Could not update user");
+
+        // then: the user must be updated with a single statement
+        assertEquals(1, statistics.getPrepareStatementCount(), "Updating the email needed more than one statement");
+        assertEquals(newEmail, personService.findById(person.getPersonId()).orElseThrow().getEmail());
+    }
+
+    @Test
+    public void updatingOnlyPermissionsIssuesOneStatement() {
+        // given: demo user in database
+        Person person = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of(Permission.USER));
+        assertTrue(personService.create(person), "Unable to create user " + person);
+        statistics.clear();
+
+        // when: changing only the permissions of the user
+        assertTrue(personService.update(person, null, null, Set.of(Permission.USER, Permission.ADMIN)), "Could not update user");
+
+        // then: the user must be updated with a single statement
+        assertEquals(1, statistics.getPrepareStatementCount(), "Updating the permissions needed more than one statement");
+        assertEquals(Set.of(Permission.USER, Permission.ADMIN), personService.findById(person.getPersonId()).orElseThrow().getPermissions());
+    }
+
+    @Test
+    public void updatingOnlyPasswordIssuesOneStatement() {
+        // given: demo user in database
+        Person person = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of(Permission.USER));
+        assertTrue(personService.create(person), "Unable to create user " + person);
+        String oldHash = person.getPassword();
+        statistics.clear();
+
+        // when: changing only the password of the user
+        assertTrue(personService.update(person, null, StringGenerator.password(), null), "Could not update user");
+
+        // then: the user must be updated with a single statement and receive the new hash
+        assertEquals(1, statistics.getPrepareStatementCount(), "Updating the password needed more than one statement");
+        assertNotEquals(oldHash, person.getPassword(), "The password of the user was not changed");
+        assertEquals(person.getPassword(), personService.findById(person.getPersonId()).orElseThrow().getPassword());
+    }
+
+    @Test
+    public void failedUpdateLeavesPasswordUnchanged() {
+        // given: demo user that was deleted in the meantime
+        Person person = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of(Permission.USER));
+        assertTrue(personService.create(person), "Unable to create user " + person);
+        assertTrue(personService.delete(person.getPersonId()), "Unable to delete user " + person);
+        String oldHash = person.getPassword();
+
+        // when: changing the password of the deleted user
+        boolean updated = personService.update(person, null, StringGenerator.password(), null);
+
+        // then: the update must fail without changing the given user
+        assertFalse(updated, "A deleted user was updated");
+        assertEquals(oldHash, person.getPassword(), "The password was changed although the update failed");
+    }
+
+    @Test
+    public void updatingUnchangedValuesIssuesNoStatement() {
+        // given: demo user in database
+        Person person = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of(Permission.USER));
+        assertTrue(personService.create(person), "Unable to create user " + person);
+        statistics.clear();
+
+        // when: updating the user with its current username and permissions
+        assertTrue(personService.update(person, person.getUsername(), null, Set.of(Permission.USER)), "Could not update user");
+
+        // then: nothing must be written
+        assertEquals(0, statistics.getPrepareStatementCount(), "Unchanged values were written");
+    }
+
+    @Test
+    public void updatingMissingPersonFails() {
+        // when: updating a user that does not exist
+        boolean updated = personService.update(UUID.randomUUID(), StringGenerator.username(), null, null);
+
+        // then: the update must fail
+        assertFalse(updated, "A user that does not exist was updated");
+    }
+}
@@ -0,0 +1,81 @@
+package at.ac.uibk.swa.service.person_service;
+
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.util.MockAuthContext;
+import at.ac.uibk.swa.util.StringGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "swa.token.sessions.max-per-person=3")
+@ActiveProfiles("test")
+public class TestPersonServiceSessions {
+    @Autowired
+    private PersonService personService;
+
+    private List<Person> loginTimes(String username, String password, int times) throws InterruptedException {
+        List<Person> logins = new ArrayList<>();
+        for (int i = 0; i < times; i++) {
+            logins.add(personService.login(username, password).orElseThrow());
+            // NOTE: Sessions are ordered by their Creation Date, so make sure they differ.
+            Thread.sleep(5);
+        }
+        return logins;
+    }
+
+    @Test
+    public void logoutEndsOnlyCurrentSession() throws InterruptedException {
+        // given: user that is logged in on two devices
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        assertTrue(personService.create(new Person(username, StringGenerator.email(), password, Set.of())));
+        List<Person> logins = loginTimes(username, password, 2);
+
+        // when: logging out on the first device
+        MockAuthContext.setLoggedInUser(logins.get(0));
+        assertTrue(personService.logout(), "Could not log out");
+
+        // then: only the session of the first device must be ended
+        assertTrue(personService.findByUsernameAndToken(username, logins.get(0).getToken()).isEmpty(), "Session still valid after logout");
+        assertTrue(personService.findByUsernameAndToken(username, logins.get(1).getToken()).isPresent(), "Other session was ended by logout");
+    }
+
+    @Test
+    public void oldestSessionsAreEndedOverLimit() throws InterruptedException {
+        // given: user in database
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        assertTrue(personService.create(new Person(username, StringGenerator.email(), password, Set.of())));
+
+        // when: logging in more often than sessions are allowed
+        List<Person> logins = loginTimes(username, password, 5);
+
+        // then: only the newest sessions must be valid
+        for (int i = 0; i < logins.size(); i++) {
+            boolean valid = personService.findByUsernameAndToken(username, logins.get(i).getToken()).isPresent();
+            assertEquals(i >= 2, valid, "Wrong validity of session " + i);
+        }
+    }
+
+    @Test
+    public void registrationCreatesSession() {
+        // given: a new user created with a token
+        String username = StringGenerator.username();
+        Person person = new Person(username, StringGenerator.email(), StringGenerator.password(), UUID.randomUUID(), Set.of());
+
+        // when: creating the user
+        assertTrue(personService.create(person), "Unable to create user");
+
+        // then: the user must be logged in with the token
+        assertTrue(personService.findByUsernameAndToken(username, person.getToken()).isPresent(), "Token of new user is not valid");
+    }
+}
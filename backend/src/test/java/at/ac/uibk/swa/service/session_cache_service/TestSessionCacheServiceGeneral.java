@@ -0,0 +1,95 @@
+package at.ac.uibk.swa.service.session_cache_service;
+
+import at.ac.uibk.swa.config.jwt_authentication.JwtToken;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.service.LoginService;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.util.MockAuthContext;
+import at.ac.uibk.swa.util.StringGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class TestSessionCacheServiceGeneral {
+    @Autowired
+    private PersonService personService;
+    @Autowired
+    private LoginService loginService;
+
+    @Test
+    public void cachedSessionIsInvalidatedOnLogout() {
+        // given: logged in user whose session has already been cached
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        assertTrue(personService.create(new Person(username, StringGenerator.email(), password, Set.of())), "Unable to create user for test");
+        Person person = personService.login(username, password).orElseThrow();
+        JwtToken jwt = new JwtToken(username, person.getToken());
+        assertTrue(loginService.login(jwt).isPresent(), "Could not authenticate with token");
+        assertTrue(loginService.login(jwt).isPresent(), "Could not authenticate with cached token");
+
+        // when: logging out
+        MockAuthContext.setLoggedInUser(person);
+        assertTrue(personService.logout(), "Could not log out");
+
+        // then: the cached session must not be valid anymore
+        assertTrue(loginService.login(jwt).isEmpty(), "Cached token still valid after logout");
+    }
+
+    @Test
+    public void cachedSessionStaysValidOnNewLogin() {
+        // given: logged in user whose session has already been cached
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        assertTrue(personService.create(new Person(username, StringGenerator.email(), password, Set.of())), "Unable to create user for test");
+        Person person = personService.login(username, password).orElseThrow();
+        JwtToken oldJwt = new JwtToken(username, person.getToken());
+        assertTrue(loginService.login(oldJwt).isPresent(), "Could not authenticate with token");
+
+        // when: logging in again (e.g. on another device)
+        Person newPerson = personService.login(username, password).orElseThrow();
+
+        // then: both sessions must be valid
+        assertTrue(loginService.login(oldJwt).isPresent(), "Old cached token not valid anymore after new login");
+        assertTrue(loginService.login(new JwtToken(username, newPerson.getToken())).isPresent(), "New token is not valid");
+    }
+
+    @Test
+    public void cachedSessionIsInvalidatedOnDelete() {
+        // given: logged in user whose session has already been cached
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        assertTrue(personService.create(new Person(username, StringGenerator.email(), password, Set.of())), "Unable to create user for test");
+        Person person = personService.login(username, password).orElseThrow();
+        JwtToken jwt = new JwtToken(username, person.getToken());
+        assertTrue(loginService.login(jwt).isPresent(), "Could not authenticate with token");
+
+        // when: deleting the user
+        assertTrue(personService.delete(person.getPersonId()), "Could not delete user");
+
+        // then: the cached session must not be valid anymore
+        assertTrue(loginService.login(jwt).isEmpty(), "Cached token still valid after deleting the user");
+    }
+
+    @Test
+    public void cachedSessionRequiresMatchingUsername() {
+        // given: logged in user whose session has already been cached
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        assertTrue(personService.create(new Person(username, StringGenerator.email(), password, Set.of())), "Unable to create user for test");
+        Person person = personService.login(username, password).orElseThrow();
+        assertTrue(loginService.login(new JwtToken(username, person.getToken())).isPresent(), "Could not authenticate with token");
+
+        // when: using the token with another username
+        JwtToken wrongJwt = new JwtToken(StringGenerator.username(), person.getToken());
+
+        // then: authentication must fail
+        assertTrue(loginService.login(wrongJwt).isEmpty(), "Could authenticate with the token of another user");
+    }
+}
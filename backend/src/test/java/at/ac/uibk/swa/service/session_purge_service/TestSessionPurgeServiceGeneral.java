@@ -0,0 +1,77 @@
+package at.ac.uibk.swa.service.session_purge_service;
+
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.models.PersonSession;
+import at.ac.uibk.swa.repositories.PersonSessionRepository;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.service.SessionPurgeService;
+import at.ac.uibk.swa.util.StringGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "swa.token.expiration-duration=1h",
+        "swa.token.sessions.max-per-person=0",
+        "swa.token.purge.interval=PT1H",
+        "swa.token.purge.chunk-size=2"
+})
+@ActiveProfiles("test")
+public class TestSessionPurgeServiceGeneral {
+    @Autowired
+    private SessionPurgeService sessionPurgeService;
+    @Autowired
+    private PersonService personService;
+    @Autowired
+    private PersonSessionRepository sessionRepository;
+
+    private List<UUID> createSessions(Person person, LocalDateTime creationDate, int count) {
+        List<UUID> tokens = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            person.setToken(UUID.randomUUID(), creationDate);
+            sessionRepository.save(new PersonSession(person));
+            tokens.add(person.getToken());
+        }
+        return tokens;
+    }
+
+    @Test
+    public void expiredSessionsArePurgedInChunks() {
+        // given: user with expired and valid sessions
+        Person person = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of());
+        assertTrue(personService.create(person));
+        List<UUID> expired = createSessions(person, LocalDateTime.now().minusHours(2), 5);
+        List<UUID> valid = createSessions(person, LocalDateTime.now(), 2);
+
+        // when: purging the expired sessions
+        int deleted = sessionPurgeService.purgeExpiredSessions();
+
+        // then: all expired sessions must be deleted over multiple chunks, the valid ones must remain
+        assertTrue(deleted >= expired.size(), "Not all expired sessions were deleted");
+        for (UUID token : expired)
+            assertFalse(sessionRepository.existsById(token), "Expired session was not deleted");
+        for (UUID token : valid)
+            assertTrue(sessionRepository.existsById(token), "Valid session was deleted");
+    }
+
+    @Test
+    public void purgeWithoutExpiredSessionsDeletesNothing() {
+        // given: expired sessions were already purged
+        sessionPurgeService.purgeExpiredSessions();
+
+        // when: purging again
+        int deleted = sessionPurgeService.purgeExpiredSessions();
+
+        // then: nothing must be deleted
+        assertEquals(0, deleted);
+    }
+}
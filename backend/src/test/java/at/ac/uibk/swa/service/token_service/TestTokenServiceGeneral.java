@@ -0,0 +1,105 @@
+package at.ac.uibk.swa.service.token_service;
+
+import at.ac.uibk.swa.config.jwt_authentication.SignedToken;
+import at.ac.uibk.swa.models.Permission;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.models.TokenRevocation;
+import at.ac.uibk.swa.repositories.TokenRevocationRepository;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.service.TokenService;
+import at.ac.uibk.swa.util.MockAuthContext;
+import at.ac.uibk.swa.util.StringGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "swa.token.mode=signed")
+@ActiveProfiles("test")
+public class TestTokenServiceGeneral {
+    @Autowired
+    private PersonService personService;
+    @Autowired
+    private TokenService tokenService;
+    @Autowired
+    private TokenRevocationRepository revocationRepository;
+
+    @Test
+    public void signedTokenContainsPerson() {
+        // given: logged in user
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        assertTrue(personService.create(new Person(username, StringGenerator.email(), password, Set.of(Permission.ADMIN))), "Unable to create user for test");
+        Person person = personService.login(username, password).orElseThrow();
+
+        // when: creating and verifying a token
+        String token = tokenService.createToken(person);
+        Optional<SignedToken> maybeSignedToken = tokenService.verifyToken(token);
+
+        // then: the token must contain the user's data
+        assertTrue(maybeSignedToken.isPresent(), "Could not verify signed token");
+        SignedToken signedToken = maybeSignedToken.get();
+        assertEquals(person.getPersonId(), signedToken.getPersonId());
+        assertEquals(username, signedToken.getUsername());
+        assertEquals(Set.of(Permission.ADMIN), signedToken.getPermissions());
+    }
+
+    @Test
+    public void tamperedTokenIsRejected() {
+        // given: logged in user with a valid token
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        assertTrue(personService.create(new Person(username, StringGenerator.email(), password, Set.of(Permission.ADMIN))), "Unable to create user for test");
+        Person person = personService.login(username, password).orElseThrow();
+        String token = tokenService.createToken(person);
+
+        // when: changing a single character of the payload
+        char replacement = token.charAt(0) == 'A' ? 'B' : 'A';
+        String tamperedToken = replacement + token.substring(1);
+
+        // then: the token must not be valid
+        assertTrue(tokenService.verifyToken(tamperedToken).isEmpty(), "Tampered token is valid");
+        assertTrue(tokenService.verifyToken(token.substring(0, token.indexOf('.'))).isEmpty(), "Unsigned token is valid");
+    }
+
+    @Test
+    public void signedTokenIsRevokedOnLogout() {
+        // given: logged in user with a valid token
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        assertTrue(personService.create(new Person(username, StringGenerator.email(), password, Set.of(Permission.ADMIN))), "Unable to create user for test");
+        Person person = personService.login(username, password).orElseThrow();
+        String token = tokenService.createToken(person);
+        assertTrue(tokenService.verifyToken(token).isPresent(), "Could not verify signed token");
+
+        // when: logging out
+        MockAuthContext.setLoggedInUser(person);
+        assertTrue(personService.logout(), "Could not log out");
+
+        // then: the token must not be valid anymore
+        assertTrue(tokenService.verifyToken(token).isEmpty(), "Signed token still valid after logout");
+    }
+
+    @Test
+    public void revocationIsStored() {
+        // given: logged in user with a valid token
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        assertTrue(personService.create(new Person(username, StringGenerator.email(), password, Set.of(Permission.ADMIN))), "Unable to create user for test");
+        Person person = personService.login(username, password).orElseThrow();
+        SignedToken token = tokenService.verifyToken(tokenService.createToken(person)).orElseThrow();
+
+        // when: logging out
+        MockAuthContext.setLoggedInUser(person);
+        assertTrue(personService.logout(), "Could not log out");
+
+        // then: the revocation must be stored, so it survives a restart
+        TokenRevocation revocation = revocationRepository.findById(person.getPersonId()).orElseThrow();
+        assertTrue(revocation.getRevokedAt() >= token.getIssuedAt().toEpochMilli(), "Stored revocation does not cover the token");
+    }
+}
@@ -0,0 +1,89 @@
+package at.ac.uibk.swa.service.token_write_behind_service;
+
+import at.ac.uibk.swa.config.jwt_authentication.JwtToken;
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.repositories.PersonSessionRepository;
+import at.ac.uibk.swa.service.LoginService;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.service.TokenWriteBehindService;
+import at.ac.uibk.swa.util.MockAuthContext;
+import at.ac.uibk.swa.util.StringGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// NOTE: Use a long Flush Interval, so the Tests decide when the Queue is flushed.
+@SpringBootTest(properties = {"swa.token.write-behind.enabled=true", "swa.token.write-behind.flush-interval=1h"})
+@ActiveProfiles("test")
+public class TestTokenWriteBehindServiceGeneral {
+    @Autowired
+    private PersonService personService;
+    @Autowired
+    private LoginService loginService;
+    @Autowired
+    private TokenWriteBehindService tokenWriteBehind;
+    @Autowired
+    private PersonSessionRepository sessionRepository;
+
+    @Test
+    public void queuedSessionIsValidBeforeFlush() {
+        // given: user in database
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        assertTrue(personService.create(new Person(username, StringGenerator.email(), password, Set.of())), "Unable to create user for test");
+
+        // when: logging in without flushing the queue
+        Optional<Person> maybePerson = personService.login(username, password);
+        assertTrue(maybePerson.isPresent(), "Could not login");
+        Person person = maybePerson.get();
+
+        // then: the session must be valid, but not yet be written to the database
+        assertTrue(loginService.login(new JwtToken(username, person.getToken())).isPresent(), "Queued session is not valid");
+        assertTrue(sessionRepository.findByUsernameAndToken(username, person.getToken()).isEmpty(), "Session was written synchronously");
+    }
+
+    @Test
+    public void flushWritesAllSessions() {
+        // given: user that logged in twice without flushing the queue
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        assertTrue(personService.create(new Person(username, StringGenerator.email(), password, Set.of())), "Unable to create user for test");
+        Optional<Person> firstLogin = personService.login(username, password);
+        Optional<Person> secondLogin = personService.login(username, password);
+        assertTrue(firstLogin.isPresent() && secondLogin.isPresent(), "Could not login");
+
+        // when: flushing the queue
+        tokenWriteBehind.flush();
+
+        // then: both sessions must be stored and valid
+        for (Person login : Set.of(firstLogin.get(), secondLogin.get())) {
+            assertTrue(sessionRepository.findByUsernameAndToken(username, login.getToken()).isPresent(), "Session was not written");
+            assertTrue(loginService.login(new JwtToken(username, login.getToken())).isPresent(), "Session is not valid");
+        }
+    }
+
+    @Test
+    public void endedSessionIsNeverWritten() {
+        // given: user with a queued session
+        String username = StringGenerator.username();
+        String password = StringGenerator.password();
+        assertTrue(personService.create(new Person(username, StringGenerator.email(), password, Set.of())), "Unable to create user for test");
+        Person person = personService.login(username, password).orElseThrow();
+        JwtToken jwt = new JwtToken(username, person.getToken());
+
+        // when: logging out before the queue is flushed
+        MockAuthContext.setLoggedInUser(person);
+        assertTrue(personService.logout(), "Could not log out");
+        tokenWriteBehind.flush();
+
+        // then: the session must neither be stored nor valid
+        assertTrue(sessionRepository.findByUsernameAndToken(username, jwt.getToken()).isEmpty(), "Ended session was written");
+        assertTrue(loginService.login(jwt).isEmpty(), "Ended session is still valid");
+    }
+}
@@ -0,0 +1,105 @@
+package at.ac.uibk.swa.service.username_filter_service;
+
+import at.ac.uibk.swa.models.Person;
+import at.ac.uibk.swa.service.PersonService;
+import at.ac.uibk.swa.service.UsernameFilterService;
+import at.ac.uibk.swa.util.StringGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "swa.persons.username-filter.expected-insertions=10000")
+@ActiveProfiles("test")
+public class TestUsernameFilterServiceGeneral {
+    @Autowired
+    private UsernameFilterService usernameFilter;
+    @Autowired
+    private PersonService personService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private double checks(String result) {
+        return meterRegistry.get("persons.username_filter.checks").tag("result", result).counter().count();
+    }
+
+    @Test
+    public void createdUsernamesAreTaken() {
+        // given: demo user in database
+        Person person = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of());
+        assertTrue(personService.create(person), "Unable to create user for test");
+
+        // then: the username must be taken, a new one must be free
+        assertTrue(usernameFilter.mightBeTaken(person.getUsername()), "Created username is not in the filter");
+        assertTrue(usernameFilter.isTaken(person.getUsername()), "Created username is not taken");
+        assertFalse(usernameFilter.isTaken(StringGenerator.username()), "Unused username is taken");
+    }
+
+    @Test
+    public void duplicateUsernameIsRejected() {
+        // given: demo user in database
+        String username = StringGenerator.username();
+        assertTrue(personService.create(new Person(username, StringGenerator.email(), StringGenerator.password(), Set.of())));
+        double hits = checks("hit");
+
+        // when: creating another user with the same username
+        boolean created = personService.create(new Person(username, StringGenerator.email(), StringGenerator.password(), Set.of()));
+
+        // then: the user must be rejected by the filter check
+        assertFalse(created, "User with taken username was created");
+        assertEquals(hits + 1, checks("hit"), "Duplicate was not detected before saving");
+    }
+
+    @Test
+    public void renamedUsernamesAreAdded() {
+        // given: demo user in database
+        Person person = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of());
+        assertTrue(personService.create(person), "Unable to create user for test");
+
+        // when: renaming the user
+        String newUsername = StringGenerator.username();
+        assertTrue(personService.update(person.getPersonId(), newUsername, null, null), "Could not rename user");
+
+        // then: the new username must be taken, the old one must be free again
+        assertTrue(usernameFilter.isTaken(newUsername), "New username is not taken");
+        assertFalse(usernameFilter.isTaken(person.getUsername()), "Old username is still taken");
+    }
+
+    @Test
+    public void unchangedUsernamesAreNotStale() {
+        // given: demo user in database
+        Person person = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of());
+        assertTrue(personService.create(person), "Unable to create user for test");
+        double stale = meterRegistry.get("persons.username_filter.stale").gauge().value();
+
+        // when: updating the user with its current username
+        assertTrue(personService.update(person.getPersonId(), person.getUsername(), StringGenerator.email(), null, null), "Could not update user");
+
+        // then: no username must have become stale
+        assertEquals(stale, meterRegistry.get("persons.username_filter.stale").gauge().value(), "Unchanged username was counted as stale");
+        assertTrue(usernameFilter.isTaken(person.getUsername()), "Username is no longer taken");
+    }
+
+    @Test
+    public void rebuildKeepsExistingUsernames() {
+        // given: demo user that was deleted and one that still exists
+        Person deleted = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of());
+        Person kept = new Person(StringGenerator.username(), StringGenerator.email(), StringGenerator.password(), Set.of());
+        assertTrue(personService.create(deleted));
+        assertTrue(personService.create(kept));
+        assertTrue(personService.delete(deleted.getPersonId()));
+
+        // when: rebuilding the filter
+        usernameFilter.rebuild();
+
+        // then: only existing usernames may be contained
+        assertTrue(usernameFilter.mightBeTaken(kept.getUsername()), "Existing username was lost");
+        assertFalse(usernameFilter.isTaken(deleted.getUsername()), "Deleted username is still taken");
+        assertTrue(meterRegistry.get("persons.username_filter.memory").gauge().value() > 0, "Memory was not reported");
+    }
+}
@@ -0,0 +1,43 @@
+package at.ac.uibk.swa.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestCursorUtil {
+
+    @Test
+    public void cursorRoundTrip() {
+        // given: a sort key containing the separator and non-ASCII characters
+        String key = "user:ä/ö+1";
+
+        // when: encoding and decoding it
+        String cursor = CursorUtil.encode("USERNAME", key);
+
+        // then: the key must be restored and the cursor must be URL-safe
+        assertEquals(Optional.of(key), CursorUtil.tryDecode("USERNAME", cursor));
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"), "Cursor is not URL-safe: " + cursor);
+    }
+
+    @Test
+    public void cursorOfOtherOrderingIsRejected() {
+        // given: a cursor for ordering by id
+        String cursor = CursorUtil.encode("ID", "62b3e09e-c529-40c6-85c6-1afc53e17408");
+
+        // when: decoding it for ordering by username
+        // then: it must be rejected
+        assertTrue(CursorUtil.tryDecode("USERNAME", cursor).isEmpty());
+        assertTrue(CursorUtil.tryDecode("I", cursor).isEmpty());
+    }
+
+    @Test
+    public void malformedCursorIsRejected() {
+        // given: cursors that were not created by the server
+        // when: decoding them
+        // then: they must be rejected without an exception
+        assertTrue(CursorUtil.tryDecode("USERNAME", "not base64!").isEmpty());
+        assertTrue(CursorUtil.tryDecode("USERNAME", "").isEmpty());
+    }
+}
@@ -0,0 +1,85 @@
+package at.ac.uibk.swa.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class TestEndpointMatcherUtil {
+    @Autowired
+    private EndpointMatcherUtil endpointMatcherUtil;
+
+    private static MockHttpServletRequest request(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+
+    @Test
+    public void baseRoutePrefixes() {
+        // given: the default base routes "/api" and "/admin"
+        // when: checking paths against the base routes
+        // then: only the base route itself and routes below it must match
+        assertTrue(endpointMatcherUtil.isApiRoute(request("/api")));
+        assertTrue(endpointMatcherUtil.isApiRoute(request("/api/login")));
+        assertFalse(endpointMatcherUtil.isApiRoute(request("/apis/login")));
+        assertTrue(endpointMatcherUtil.isAdminRoute(request("/admin/test")));
+        assertFalse(endpointMatcherUtil.isAdminRoute(request("/api/test")));
+        assertFalse(endpointMatcherUtil.isApiRoute(request("/admin/test")));
+    }
+
+    @Test
+    public void matchersAreBuiltOnce() {
+        // given: default setup
+        // when: getting the matchers multiple times
+        // then: the same instances must be returned
+        assertSame(endpointMatcherUtil.getApiRouteRequestMatcher(), endpointMatcherUtil.getApiRouteRequestMatcher());
+        assertSame(endpointMatcherUtil.getProtectedRouteRequestMatcher(), endpointMatcherUtil.getProtectedRouteRequestMatcher());
+    }
+
+    @Test
+    public void publicAndProtectedRoutes() {
+        // given: default setup
+        String login = endpointMatcherUtil.toApiEndpoint(endpointMatcherUtil.getApiLoginEndpoint());
+        String logout = endpointMatcherUtil.toApiEndpoint(endpointMatcherUtil.getApiLogoutEndpoint());
+
+        // when: matching the login and logout routes
+        // then: login must be public and logout must be protected
+        assertEquals("/api/login", login);
+        assertTrue(endpointMatcherUtil.getPublicRouteRequestMatcher().matches(request(login)));
+        assertFalse(endpointMatcherUtil.getProtectedRouteRequestMatcher().matches(request(login)));
+        assertFalse(endpointMatcherUtil.getPublicRouteRequestMatcher().matches(request(logout)));
+        assertTrue(endpointMatcherUtil.getProtectedApiRequestMatcher().matches(request(logout)));
+        assertTrue(endpointMatcherUtil.getProtectedRouteRequestMatcher().matches(request("/admin/test")));
+    }
+
+    @Test
+    public void errorRoutes() {
+        // given: default setup
+        // when: matching the error routes
+        // then: all error routes below the api base route must match
+        assertTrue(endpointMatcherUtil.isErrorRoute(request("/api/unauthorized")));
+        assertTrue(endpointMatcherUtil.isErrorRoute(request("/api/error")));
+        assertFalse(endpointMatcherUtil.isErrorRoute(request("/api/login")));
+        assertEquals(5, endpointMatcherUtil.getErrorRouteRequestMatchers().length);
+    }
+
+    @Test
+    public void encodedPathsAreDecodedBeforeMatching() {
+        // given: requests whose path is percent-encoded, with and without a servlet path set by the container
+        MockHttpServletRequest raw = request("/%61pi/logout");
+        MockHttpServletRequest dispatched = request("/%61dmin/test");
+        dispatched.setServletPath("/admin/test");
+
+        // when: matching the requests
+        // then: they must be matched by the path they are routed to
+        assertTrue(endpointMatcherUtil.getProtectedApiRequestMatcher().matches(raw));
+        assertTrue(endpointMatcherUtil.getProtectedRouteRequestMatcher().matches(raw));
+        assertTrue(endpointMatcherUtil.getProtectedRouteRequestMatcher().matches(dispatched));
+        assertTrue(endpointMatcherUtil.isApiRoute(request("/%61pi/login")));
+        assertTrue(endpointMatcherUtil.getPublicRouteRequestMatcher().matches(request("/api/%6Cogin")));
+    }
+}
@@ -0,0 +1,54 @@
+package at.ac.uibk.swa.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestUUIDUtil {
+
+    @Test
+    public void timeOrderedUUIDHasVersion7() {
+        // given: nothing
+
+        // when: generating a time-ordered UUID
+        UUID uuid = UUIDUtil.randomTimeOrderedUUID();
+
+        // then: version and variant must be set according to RFC 9562
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        // NOTE: The first 48 Bits contain the Unix Time in Milliseconds.
+        long timestamp = uuid.getMostSignificantBits() >>> 16;
+        assertTrue(Math.abs(System.currentTimeMillis() - timestamp) < 60_000, "Timestamp is not the current time");
+    }
+
+    @Test
+    public void timeOrderedUUIDsAreOrderedAcrossMilliseconds() throws InterruptedException {
+        // given: a time-ordered UUID
+        UUID first = UUIDUtil.randomTimeOrderedUUID();
+
+        // when: generating another one in a later millisecond
+        Thread.sleep(2);
+        UUID second = UUIDUtil.randomTimeOrderedUUID();
+
+        // then: the string (and binary) representation must be ordered
+        assertTrue(first.toString().compareTo(second.toString()) < 0, "UUIDs are not ordered");
+    }
+
+    @Test
+    public void bytesRoundTrip() {
+        // given: a known UUID
+        UUID uuid = UUID.fromString("62b3e09e-c529-40c6-85c6-1afc53e17408");
+
+        // when: converting it to bytes and back
+        byte[] bytes = UUIDUtil.toBytes(uuid);
+
+        // then: the bytes must be big-endian and convert back to the same UUID
+        assertEquals(16, bytes.length);
+        assertEquals((byte) 0x62, bytes[0]);
+        assertEquals((byte) 0x08, bytes[15]);
+        assertEquals(uuid, UUIDUtil.fromBytes(bytes));
+        assertNull(UUIDUtil.fromBytes(new byte[15]));
+    }
+}
@@ -0,0 +1,61 @@
+package at.ac.uibk.swa.util.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestBloomFilter {
+
+    @Test
+    public void addedValuesAreAlwaysContained() {
+        // given: a filter with some values
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++)
+            filter.put("user" + i);
+
+        // when: checking the added values
+        // then: there must be no false negatives
+        for (int i = 0; i < 10_000; i++)
+            assertTrue(filter.mightContain("user" + i), "Added value user" + i + " was not contained");
+    }
+
+    @Test
+    public void falsePositivesStayNearConfiguredProbability() {
+        // given: a filter filled up to its expected insertions
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++)
+            filter.put("user" + i);
+
+        // when: checking values that were never added
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other" + i))
+                falsePositives++;
+        }
+
+        // then: the false positive rate must be close to the configured one and match the estimate
+        double rate = falsePositives / 100_000.0;
+        assertTrue(rate < 0.02, "False positive rate " + rate + " is too high");
+        assertEquals(0.01, filter.expectedFalsePositiveProbability(), 0.005);
+    }
+
+    @Test
+    public void emptyFilterContainsNothing() {
+        // given: an empty filter
+        BloomFilter filter = new BloomFilter(100, 0.01);
+
+        // then: nothing must be contained and the size must match the configuration
+        assertFalse(filter.mightContain("user"));
+        assertEquals(0, filter.bitCount());
+        assertEquals(0, filter.expectedFalsePositiveProbability());
+        assertTrue(filter.bitSize() >= 959, "Filter is smaller than needed for 100 values");
+        assertEquals(filter.bitSize() / 8, filter.memoryBytes());
+    }
+
+    @Test
+    public void invalidSizesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1));
+    }
+}
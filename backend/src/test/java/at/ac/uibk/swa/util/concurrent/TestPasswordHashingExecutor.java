@@ -0,0 +1,127 @@
+package at.ac.uibk.swa.util.concurrent;
+
+import at.ac.uibk.swa.models.exceptions.ServiceOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestPasswordHashingExecutor {
+
+    @Test
+    public void executeReturnsResultAndRecordsMetrics() {
+        // given: an idle pool
+        MeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHashingExecutor executor = new PasswordHashingExecutor("test", 1, 1, Duration.ofSeconds(1), registry);
+
+        // when: executing a task
+        String result = executor.execute(() -> "hash");
+
+        // then: the result must be returned and the timings must be recorded for the pool
+        assertEquals("hash", result);
+        assertEquals(1, registry.get("password_hashing.duration").tag("pool", "test").timer().count());
+        assertEquals(1, registry.get("password_hashing.queue_wait").tag("pool", "test").timer().count());
+        executor.shutdown();
+    }
+
+    @Test
+    public void saturatedPoolRejectsImmediately() throws Exception {
+        // given: a pool whose only thread is busy and whose queue is full
+        MeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHashingExecutor executor = new PasswordHashingExecutor("test", 1, 1, Duration.ofSeconds(5), registry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> running = CompletableFuture.runAsync(() -> executor.run(() -> {
+            started.countDown();
+            awaitQuietly(release);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS), "Task did not start");
+        CompletableFuture<Void> queued = CompletableFuture.runAsync(() -> executor.run(() -> { }));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("executor.queued").tag("name", "test").gauge().value() < 1) {
+            assertTrue(System.nanoTime() < deadline, "Task was not queued");
+            Thread.sleep(1);
+        }
+
+        // when: submitting another task
+        ServiceOverloadedException exception = assertThrows(
+                ServiceOverloadedException.class,
+                () -> executor.execute(() -> "hash")
+        );
+
+        // then: the task must be rejected with a retry hint and the other tasks must still finish
+        assertEquals(Duration.ofSeconds(5), exception.getRetryAfter());
+        assertEquals(1, registry.get("password_hashing.rejected").tag("pool", "test").counter().count());
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void forEachThrottlesLargeBatchesInsteadOfRejecting() {
+        // given: a pool that can only hold two tasks at once
+        MeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHashingExecutor executor = new PasswordHashingExecutor("test", 1, 1, Duration.ofSeconds(1), registry);
+        List<Integer> items = IntStream.range(0, 100).boxed().toList();
+        AtomicInteger sum = new AtomicInteger();
+
+        // when: running a task for many more items than the pool can hold
+        executor.forEach(items, sum::addAndGet);
+
+        // then: every item must be processed and nothing must be rejected
+        assertEquals(items.stream().mapToInt(Integer::intValue).sum(), sum.get());
+        assertEquals(100, registry.get("password_hashing.duration").tag("pool", "test").timer().count());
+        assertEquals(0, registry.get("password_hashing.rejected").tag("pool", "test").counter().count());
+        executor.shutdown();
+    }
+
+    @Test
+    public void concurrentBatchesShareTheQueue() {
+        // given: a pool that can only hold two tasks at once
+        MeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHashingExecutor executor = new PasswordHashingExecutor("test", 1, 1, Duration.ofSeconds(1), registry);
+        List<Integer> items = IntStream.range(0, 200).boxed().toList();
+        AtomicInteger sum = new AtomicInteger();
+
+        // when: running two batches at the same time
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> executor.forEach(items, sum::addAndGet));
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> executor.forEach(items, sum::addAndGet));
+        CompletableFuture.allOf(first, second).join();
+
+        // then: every item of both batches must be processed and nothing must be rejected
+        assertEquals(2 * items.stream().mapToInt(Integer::intValue).sum(), sum.get());
+        assertEquals(0, registry.get("password_hashing.rejected").tag("pool", "test").counter().count());
+        executor.shutdown();
+    }
+
+    @Test
+    public void forEachFailsInsteadOfThrowingRejectedExecution() {
+        // given: a pool that was shut down
+        MeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHashingExecutor executor = new PasswordHashingExecutor("test", 1, 1, Duration.ofSeconds(1), registry);
+        executor.shutdown();
+
+        // when: running a batch
+        // then: the batch must fail as overloaded
+        assertThrows(ServiceOverloadedException.class, () -> executor.forEach(List.of(1, 2, 3), item -> { }));
+        assertEquals(1, registry.get("password_hashing.rejected").tag("pool", "test").counter().count());
+    }
+}
@@ -0,0 +1,93 @@
+package at.ac.uibk.swa.util.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestPrefixIndex {
+
+    @Test
+    public void prefixesMatchAnyTermIgnoringCase() {
+        // given: an index with some values
+        PrefixIndex<Integer, String> index = new PrefixIndex<>();
+        index.put(1, "alice", "Alice", "alice@example.com");
+        index.put(2, "bob", "Bob", "bob@example.com");
+        index.put(3, "albert", "Albert", "bert@example.com");
+
+        // when: searching by prefixes of different terms
+        // then: all values with a matching term must be found in term order
+        assertEquals(List.of("albert", "alice"), index.search("AL", 10));
+        assertEquals(List.of("albert", "bob"), index.search("b", 10));
+        assertEquals(List.of(), index.search("carl", 10));
+    }
+
+    @Test
+    public void valuesAreOnlyReturnedOnceAndLimited() {
+        // given: a value whose username and email share a prefix and many other matches
+        PrefixIndex<Integer, String> index = new PrefixIndex<>();
+        index.put(0, "user0", "user0", "user0@example.com");
+        for (int i = 1; i < 100; i++)
+            index.put(i, "user" + i, "user" + i, "user" + i + "@example.com");
+
+        // then: each value must be returned once and at most the limit
+        assertEquals(1, index.search("user0", 10).stream().filter("user0"::equals).count(), "Value was returned twice");
+        assertEquals(5, index.search("user", 5).size());
+        assertEquals(100, index.search("user", 1000).size());
+    }
+
+    @Test
+    public void putReplacesAndRemoveDropsTerms() {
+        // given: an indexed value
+        PrefixIndex<Integer, String> index = new PrefixIndex<>();
+        index.put(1, "old", "oldname");
+
+        // when: replacing its terms
+        index.put(1, "new", "newname");
+
+        // then: only the new terms must match
+        assertEquals(List.of(), index.search("old", 10));
+        assertEquals(List.of("new"), index.search("new", 10));
+
+        // when: removing the value
+        index.remove(1);
+
+        // then: nothing must match anymore
+        assertEquals(List.of(), index.search("new", 10));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void concurrentUpdatesAreMerged() throws InterruptedException {
+        // given: an indexed value with two fields
+        PrefixIndex<Integer, List<String>> index = new PrefixIndex<>();
+        index.put(1, List.of("name0", "mail0"), "name0", "mail0");
+
+        // when: changing both fields concurrently
+        Thread names = new Thread(() -> {
+            for (int i = 1; i <= 1000; i++) {
+                String name = "name" + i;
+                index.update(1, previous -> List.of(name, previous.get(1)), value -> value.toArray(String[]::new));
+            }
+        });
+        Thread mails = new Thread(() -> {
+            for (int i = 1; i <= 1000; i++) {
+                String mail = "mail" + i;
+                index.update(1, previous -> List.of(previous.get(0), mail), value -> value.toArray(String[]::new));
+            }
+        });
+        names.start();
+        mails.start();
+        names.join();
+        mails.join();
+
+        // then: both last changes must be kept and only their terms must match
+        assertEquals(List.of("name1000", "mail1000"), index.get(1).orElseThrow());
+        assertEquals(1, index.search("name", 10).size());
+        assertEquals(1, index.search("name1000", 10).size());
+        assertEquals(1, index.search("mail1000", 10).size());
+        assertEquals(List.of(), index.search("name999", 10));
+        assertFalse(index.update(2, previous -> previous, value -> value.toArray(String[]::new)), "Missing value was updated");
+    }
+}
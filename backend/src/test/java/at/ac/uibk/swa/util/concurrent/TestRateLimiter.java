@@ -0,0 +1,72 @@
+package at.ac.uibk.swa.util.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestRateLimiter {
+
+    private static final Duration INTERVAL = Duration.ofSeconds(1);
+
+    @Test
+    public void burstIsAllowedThenLimited() {
+        // given: a limiter with a burst of three tokens
+        AtomicLong clock = new AtomicLong();
+        RateLimiter<String> limiter = new RateLimiter<>(3, INTERVAL, 10, clock::get);
+
+        // when: taking more tokens than the burst at once
+        // then: only the burst must be granted
+        for (int i = 0; i < 3; i++) {
+            assertFalse(limiter.isLimited("a"), "Key was limited before the burst was used up");
+            assertTrue(limiter.tryAcquire("a"), "Token " + i + " of the burst was not granted");
+        }
+        assertTrue(limiter.isLimited("a"), "Key was not limited after the burst");
+        assertFalse(limiter.tryAcquire("a"), "Token was granted after the burst");
+        assertEquals(INTERVAL, limiter.getRetryAfter("a").orElseThrow());
+
+        // then: other keys must not be affected
+        assertTrue(limiter.tryAcquire("b"), "Other key was limited");
+    }
+
+    @Test
+    public void tokensAreRefilled() {
+        // given: a key that used up its burst
+        AtomicLong clock = new AtomicLong();
+        RateLimiter<String> limiter = new RateLimiter<>(2, INTERVAL, 10, clock::get);
+        assertTrue(limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a"));
+        assertFalse(limiter.tryAcquire("a"));
+
+        // when: waiting for one interval
+        clock.addAndGet(INTERVAL.toNanos());
+
+        // then: exactly one token must be available again
+        assertTrue(limiter.tryAcquire("a"), "Token was not refilled");
+        assertFalse(limiter.tryAcquire("a"), "More tokens were refilled than time passed");
+
+        // when: waiting much longer
+        clock.addAndGet(INTERVAL.toNanos() * 100);
+
+        // then: the bucket must not hold more than its burst
+        assertTrue(limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a"));
+        assertFalse(limiter.tryAcquire("a"), "Bucket held more than its burst");
+    }
+
+    @Test
+    public void numberOfKeysIsBounded() {
+        // given: a limiter tracking at most ten keys
+        AtomicLong clock = new AtomicLong();
+        RateLimiter<Integer> limiter = new RateLimiter<>(1, INTERVAL, 10, clock::get);
+
+        // when: many different keys take tokens
+        for (int i = 0; i < 1000; i++)
+            assertTrue(limiter.tryAcquire(i), "Token of new key " + i + " was not granted");
+
+        // then: the limiter must not grow over its maximum number of keys
+        assertTrue(limiter.size() <= 10, "Limiter tracks too many keys: " + limiter.size());
+    }
+}